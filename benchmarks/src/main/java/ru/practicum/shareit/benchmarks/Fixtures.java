@@ -0,0 +1,73 @@
+package ru.practicum.shareit.benchmarks;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.LastNextBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed sample data, so that every run serializes and maps exactly the same values.
+ */
+final class Fixtures {
+    static final LocalDateTime CREATED = LocalDateTime.of(2023, 1, 1, 10, 0, 0);
+
+    private Fixtures() {
+    }
+
+    static User user(long id) {
+        return User.builder().id(id).name("user" + id).email("user" + id + "@mail.com").build();
+    }
+
+    static Item item(long id) {
+        return Item.builder().id(id).name("Дрель " + id).description("Дрель с набором свёрл и кейсом")
+                .available(true).owner(1L).requestId(id).build();
+    }
+
+    static Booking booking(long id) {
+        return Booking.builder().id(id).start(CREATED.plusDays(id)).end(CREATED.plusDays(id + 1))
+                .item(item(id)).booker(user(id + 1)).status(Status.APPROVED).build();
+    }
+
+    static Comment comment(long id) {
+        return Comment.builder().id(id).text("Отличная дрель, всё работает").itemId(1L).created(CREATED.plusHours(id))
+                .author(user(id + 1)).build();
+    }
+
+    static ItemRequest request(long id) {
+        return ItemRequest.builder().id(id).description("Нужна дрель на выходные").requestor(1L).created(CREATED)
+                .build();
+    }
+
+    static BookingDto bookingDto(long id) {
+        ItemDto item = ItemDto.builder().id(id).name("Дрель " + id).description("Дрель с набором свёрл и кейсом")
+                .available(true).owner(1L).build();
+        UserDto booker = UserDto.builder().id(id + 1).name("user" + (id + 1)).email("user" + (id + 1) + "@mail.com")
+                .build();
+        return BookingDto.builder().id(id).start(CREATED.plusDays(id)).end(CREATED.plusDays(id + 1)).itemId(id)
+                .item(item).booker(booker).status(Status.APPROVED).build();
+    }
+
+    static ItemDto itemDto(long id, int comments) {
+        List<CommentDto> list = new ArrayList<>(comments);
+        for (long i = 1; i <= comments; i++) {
+            list.add(CommentDto.builder().id(i).text("Отличная дрель, всё работает").itemId(id).authorId(i + 1)
+                    .authorName("user" + (i + 1)).created(CREATED.plusHours(i)).build());
+        }
+        return ItemDto.builder().id(id).name("Дрель " + id).description("Дрель с набором свёрл и кейсом")
+                .available(true).owner(1L)
+                .lastBooking(LastNextBookingDto.builder().id(1).bookerId(2).build())
+                .nextBooking(LastNextBookingDto.builder().id(2).bookerId(3).build())
+                .comments(list).build();
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes response bodies with an {@link ObjectMapper} configured the way Spring Boot configures the server's
+ * message converter: a single booking, a page of bookings and an item with a varying number of nested comments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    private ObjectWriter writer;
+    private BookingDto booking;
+    private List<BookingDto> bookings;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writer();
+        booking = Fixtures.bookingDto(1);
+        bookings = new ArrayList<>(PAGE_SIZE);
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            bookings.add(Fixtures.bookingDto(id));
+        }
+    }
+
+    @Benchmark
+    public byte[] booking() throws JsonProcessingException {
+        return writer.writeValueAsBytes(booking);
+    }
+
+    @Benchmark
+    public byte[] bookingPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] itemWithComments(ItemState state) throws JsonProcessingException {
+        return writer.writeValueAsBytes(state.item);
+    }
+
+    @State(Scope.Benchmark)
+    public static class ItemState {
+        @Param({"0", "10", "100"})
+        private int comments;
+
+        private ItemDto item;
+
+        @Setup
+        public void setUp() {
+            item = Fixtures.itemDto(1, comments);
+        }
+    }
+}
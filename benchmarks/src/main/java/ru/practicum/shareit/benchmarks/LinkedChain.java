@@ -0,0 +1,50 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.component.Chain;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.enums.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The chain of responsibility that {@code BookingServiceImpl} used to build for every request: the handlers are
+ * linked in a fixed order and each one passes the request on until one of them matches the state. It only exists
+ * here, as the baseline for {@link StateDispatchBenchmark}.
+ */
+final class LinkedChain {
+    private final Chain handler;
+    private final LinkedChain next;
+
+    private LinkedChain(Chain handler, LinkedChain next) {
+        this.handler = handler;
+        this.next = next;
+    }
+
+    static LinkedChain link(Chain... handlers) {
+        LinkedChain head = null;
+        for (int i = handlers.length - 1; i >= 0; i--) {
+            head = new LinkedChain(handlers[i], head);
+        }
+        return head;
+    }
+
+    List<Chain> handlers() {
+        List<Chain> handlers = new ArrayList<>();
+        for (LinkedChain link = this; link != null; link = link.next) {
+            handlers.add(link.handler);
+        }
+        return handlers;
+    }
+
+    List<BookingDto> processRequest(long userId, State state, Pageable page) {
+        if (state == handler.getState()) {
+            return handler.findBookings(userId, page);
+        }
+        if (next == null) {
+            return new ArrayList<>();
+        }
+        return next.processRequest(userId, state, page);
+    }
+}
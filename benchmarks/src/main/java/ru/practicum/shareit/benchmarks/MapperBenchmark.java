@@ -0,0 +1,126 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingMapper;
+import ru.practicum.shareit.booking.model.BookingMapperImpl;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentMapper;
+import ru.practicum.shareit.item.model.CommentMapperImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemMapper;
+import ru.practicum.shareit.item.model.ItemMapperImpl;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequestMapperImpl;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserMapper;
+import ru.practicum.shareit.user.model.UserMapperImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the generated MapStruct mappers in both directions on fixed entities and DTOs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    private final BookingMapper bookingMapper = new BookingMapperImpl();
+    private final ItemMapper itemMapper = new ItemMapperImpl();
+    private final ItemRequestMapper itemRequestMapper = new ItemRequestMapperImpl();
+    private final CommentMapper commentMapper = new CommentMapperImpl();
+    private final UserMapper userMapper = new UserMapperImpl();
+
+    private Booking booking;
+    private BookingDto bookingDto;
+    private Item item;
+    private ItemDto itemDto;
+    private ItemRequest request;
+    private ItemRequestDto requestDto;
+    private Comment comment;
+    private CommentDto commentDto;
+    private User user;
+    private UserDto userDto;
+
+    @Setup
+    public void setUp() {
+        booking = Fixtures.booking(1);
+        bookingDto = bookingMapper.toBookingDto(booking);
+        item = Fixtures.item(1);
+        itemDto = itemMapper.toItemDto(item);
+        request = Fixtures.request(1);
+        requestDto = itemRequestMapper.toRequestDto(request);
+        comment = Fixtures.comment(1);
+        commentDto = commentMapper.toCommentDto(comment);
+        user = Fixtures.user(1);
+        userDto = userMapper.toUserDto(user);
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return bookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public Booking bookingFromDto() {
+        return bookingMapper.toBooking(bookingDto);
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return itemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public Item itemFromDto() {
+        return itemMapper.toItem(itemDto);
+    }
+
+    @Benchmark
+    public ItemRequestDto requestToDto() {
+        return itemRequestMapper.toRequestDto(request);
+    }
+
+    @Benchmark
+    public ItemRequest requestFromDto() {
+        return itemRequestMapper.toRequest(requestDto);
+    }
+
+    @Benchmark
+    public CommentDto commentToDto() {
+        return commentMapper.toCommentDto(comment);
+    }
+
+    @Benchmark
+    public Comment commentFromDto() {
+        return commentMapper.toComment(commentDto);
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return userMapper.toUserDto(user);
+    }
+
+    @Benchmark
+    public User userFromDto() {
+        return userMapper.toUser(userDto);
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.config.VirtualThreadExecution;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.variables.Variables.HEADER;
+
+/**
+ * Serves {@code GET /items} over HTTP from the server on the in-memory H2 database of the {@code load} profile
+ * while {@code clients} requests are in flight, once with the Tomcat thread pool and once with a virtual thread
+ * per request. An operation is a round of {@code clients} concurrent requests, so the requests served per second
+ * are the score multiplied by the clients. The virtual mode needs Java 21: on an older runtime the server falls
+ * back to the Tomcat pool, so the trial fails instead of measuring the pool twice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestScalingBenchmark {
+    private static final int ITEMS = 20;
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    @Param({"1", "16", "64", "256"})
+    private int clients;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("load")
+                .run("--server.port=0", "--shareit.execution.mode=" + mode);
+        if ("virtual".equals(mode) && !context.getBean(VirtualThreadExecution.class).isVirtual()) {
+            context.close();
+            throw new IllegalStateException("The virtual mode needs Java 21, the benchmark runs on Java "
+                    + Runtime.version().feature());
+        }
+        User owner = context.getBean(UserRepository.class)
+                .save(User.builder().name("owner").email("scaling@mail.com").build());
+        List<Item> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(Item.builder().name("Дрель " + i).description("Аккумуляторная дрель").available(true)
+                    .owner(owner.getId()).build());
+        }
+        context.getBean(ItemRepository.class).saveAll(items);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items"))
+                .header(HEADER, String.valueOf(owner.getId()))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getItemsByUser() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[clients];
+        for (int i = 0; i < clients; i++) {
+            responses[i] = httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> {
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException("GET /items answered " + response.statusCode());
+                        }
+                    });
+        }
+        CompletableFuture.allOf(responses).join();
+        return clients;
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.component.ItemSearchIndex;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link ItemService#searchItems} inside the server context on the in-memory H2 database of the {@code load}
+ * profile. The dataset is generated from a fixed seed, so every run searches the same items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class SearchItemsBenchmark {
+    private static final long SEED = 20230101L;
+    private static final String[] NAMES = {"Дрель", "Отвёртка", "Палатка", "Лодка", "Велосипед", "Самокат",
+            "Перфоратор", "Стремянка", "Пила", "Рюкзак"};
+    private static final String[] ADJECTIVES = {"аккумуляторная", "походная", "надувная", "складная", "горная",
+            "электрическая", "ручная", "детская", "большая", "лёгкая"};
+
+    @Param({"1000", "10000"})
+    private int items;
+
+    @Param({"дрель", "складная", "xyz"})
+    private String text;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("load")
+                .run();
+        User owner = context.getBean(UserRepository.class)
+                .save(User.builder().name("owner").email("owner@mail.com").build());
+        Random random = new Random(SEED);
+        List<Item> dataset = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            String name = NAMES[random.nextInt(NAMES.length)];
+            String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+            dataset.add(Item.builder().name(name + " " + i).description(adjective + " " + name.toLowerCase())
+                    .available(random.nextInt(10) > 0).owner(owner.getId()).build());
+        }
+        context.getBean(ItemRepository.class).saveAll(dataset);
+        context.getBean(ItemSearchIndex.class).rebuild();
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItems() {
+        return itemService.searchItems(text, 0, 20);
+    }
+}
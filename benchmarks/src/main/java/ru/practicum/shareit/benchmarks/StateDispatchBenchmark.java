@@ -0,0 +1,101 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.component.BookingDispatcher;
+import ru.practicum.shareit.booking.component.Chain;
+import ru.practicum.shareit.booking.component.GetBookingsAll;
+import ru.practicum.shareit.booking.component.GetBookingsCurrent;
+import ru.practicum.shareit.booking.component.GetBookingsFuture;
+import ru.practicum.shareit.booking.component.GetBookingsOwnerAll;
+import ru.practicum.shareit.booking.component.GetBookingsOwnerCurrent;
+import ru.practicum.shareit.booking.component.GetBookingsOwnerFuture;
+import ru.practicum.shareit.booking.component.GetBookingsOwnerPast;
+import ru.practicum.shareit.booking.component.GetBookingsOwnerRejected;
+import ru.practicum.shareit.booking.component.GetBookingsOwnerWaiting;
+import ru.practicum.shareit.booking.component.GetBookingsPast;
+import ru.practicum.shareit.booking.component.GetBookingsRejected;
+import ru.practicum.shareit.booking.component.GetBookingsWaiting;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingMapper;
+import ru.practicum.shareit.booking.model.BookingMapperImpl;
+import ru.practicum.shareit.enums.Role;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request {@link LinkedChain} construction and linear walk that {@code BookingServiceImpl} used to do
+ * with the {@link BookingDispatcher} lookup table. The repository is stubbed, so only dispatch cost is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class StateDispatchBenchmark {
+    @Param({"ALL", "CURRENT", "WAITING"})
+    private ru.practicum.shareit.enums.State state;
+
+    @Param({"BOOKER", "OWNER"})
+    private Role role;
+
+    private BookingRepository bookingRepository;
+    private BookingMapper bookingMapper;
+    private BookingDispatcher dispatcher;
+    private final Pageable page = PageRequest.of(0, 20);
+
+    @Setup
+    public void setUp() {
+        bookingRepository = StubRepositories.of(BookingRepository.class, List.of());
+        bookingMapper = new BookingMapperImpl();
+        List<Chain> chains = new ArrayList<>(bookerChain().handlers());
+        chains.addAll(ownerChain().handlers());
+        dispatcher = new BookingDispatcher(chains);
+    }
+
+    @Benchmark
+    public List<BookingDto> chain() {
+        LinkedChain chain = role == Role.BOOKER ? bookerChain() : ownerChain();
+        return chain.processRequest(1L, state, page);
+    }
+
+    @Benchmark
+    public List<BookingDto> dispatchTable() {
+        return dispatcher.findBookings(role, 1L, state, page);
+    }
+
+    private LinkedChain bookerChain() {
+        return LinkedChain.link(new GetBookingsAll(bookingRepository, bookingMapper),
+                new GetBookingsRejected(bookingRepository, bookingMapper),
+                new GetBookingsWaiting(bookingRepository, bookingMapper),
+                new GetBookingsPast(bookingRepository, bookingMapper),
+                new GetBookingsFuture(bookingRepository, bookingMapper),
+                new GetBookingsCurrent(bookingRepository, bookingMapper));
+    }
+
+    private LinkedChain ownerChain() {
+        return LinkedChain.link(new GetBookingsOwnerAll(bookingRepository, bookingMapper),
+                new GetBookingsOwnerRejected(bookingRepository, bookingMapper),
+                new GetBookingsOwnerWaiting(bookingRepository, bookingMapper),
+                new GetBookingsOwnerPast(bookingRepository, bookingMapper),
+                new GetBookingsOwnerFuture(bookingRepository, bookingMapper),
+                new GetBookingsOwnerCurrent(bookingRepository, bookingMapper));
+    }
+}
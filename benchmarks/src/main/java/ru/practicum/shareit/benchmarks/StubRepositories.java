@@ -0,0 +1,41 @@
+package ru.practicum.shareit.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+
+final class StubRepositories {
+    private StubRepositories() {
+    }
+
+    /**
+     * Returns a repository whose list queries answer with {@code rows} and whose other methods return empty values,
+     * so that benchmarks measure the code around the repository rather than the database.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T of(Class<T> repository, List<?> rows) {
+        return (T) Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository},
+                (proxy, method, args) -> {
+                    Class<?> type = method.getReturnType();
+                    if (List.class.isAssignableFrom(type)) {
+                        return rows;
+                    }
+                    if (type == Optional.class) {
+                        return Optional.empty();
+                    }
+                    if (type == boolean.class) {
+                        return false;
+                    }
+                    if (type == long.class) {
+                        return 0L;
+                    }
+                    if (method.getName().equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if (method.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.enums;
+
+import java.util.Optional;
+
+/**
+ * State of the bookings to list. The gateway and the server parse the request parameter the same way, ignoring
+ * the case.
+ */
+public enum State {
+    ALL,
+    CURRENT,
+    PAST,
+    FUTURE,
+    WAITING,
+    REJECTED;
+
+    public static Optional<State> from(String state) {
+        for (State value : values()) {
+            if (value.name().equalsIgnoreCase(state)) {
+                return Optional.of(value);
+            }
+        }
+        return Optional.empty();
+    }
+}
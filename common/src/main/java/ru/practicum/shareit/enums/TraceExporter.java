@@ -0,0 +1,7 @@
+package ru.practicum.shareit.enums;
+
+public enum TraceExporter {
+    NONE,
+    FILE,
+    MEMORY;
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.enums.State;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Adds the booking state to the {@code http.server.requests} timers. Every request gets the tag, so all the
+ * timers of the metric share one set of tag keys; a state that is not a {@link State} is tagged as unknown to
+ * keep the number of timers bounded. The gateway also tags its calls to the server with {@link #state(String)}.
+ */
+@Component
+public class StateTags implements WebMvcTagsContributor {
+    private static final String STATE = "state";
+
+    @Override
+    public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                 Throwable exception) {
+        return Tags.of(state(request.getParameter(STATE)));
+    }
+
+    @Override
+    public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+        return Tags.empty();
+    }
+
+    public static Tag state(String state) {
+        if (state == null) {
+            return Tag.of(STATE, "none");
+        }
+        return Tag.of(STATE, State.from(state).map(Enum::name).orElse("unknown"));
+    }
+}
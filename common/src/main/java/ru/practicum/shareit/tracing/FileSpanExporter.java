@@ -0,0 +1,117 @@
+package ru.practicum.shareit.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends every finished span to a file as a line of Zipkin v2 JSON, so the traces of a run can be read without
+ * a tracing backend or imported into one later. The request thread only puts a copy of the span into a bounded
+ * queue; a single writer thread serializes the queued spans and writes them in batches. When the writer falls
+ * behind and the queue is full, new spans are dropped and counted instead of slowing the requests down.
+ */
+@Slf4j
+public class FileSpanExporter extends SpanHandler implements Closeable {
+    private static final int MAX_BATCH = 500;
+
+    private final BufferedWriter writer;
+    private final BlockingQueue<MutableSpan> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread thread;
+    private volatile boolean closed;
+
+    public FileSpanExporter(Path file, int queueSize) {
+        try {
+            if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        queue = new ArrayBlockingQueue<>(queueSize);
+        thread = new Thread(this::write, "file-span-exporter");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause == Cause.ABANDONED) {
+            return true;
+        }
+        if (closed || !queue.offer(new MutableSpan(span))) {
+            dropped.incrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of spans dropped because the queue was full or the exporter was closed.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void write() {
+        List<MutableSpan> batch = new ArrayList<>(MAX_BATCH);
+        long reported = 0;
+        while (!closed || !queue.isEmpty()) {
+            try {
+                MutableSpan span = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (span == null) {
+                    continue;
+                }
+                batch.add(span);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                for (MutableSpan queued : batch) {
+                    writer.write(queued.toString());
+                    writer.newLine();
+                }
+                writer.flush();
+            } catch (IOException exception) {
+                log.warn("{} spans were not written", batch.size(), exception);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            batch.clear();
+            long total = dropped.get();
+            if (total > reported) {
+                log.warn("{} spans were dropped, the exporter queue is full", total - reported);
+                reported = total;
+            }
+        }
+    }
+
+    /**
+     * Writes the spans still in the queue and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            thread.join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        writer.close();
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps copies of the last finished spans, oldest first, for tests and for looking into a running instance.
+ */
+public class InMemorySpanCollector extends SpanHandler {
+    private final int capacity;
+    private final Deque<MutableSpan> spans = new ArrayDeque<>();
+
+    public InMemorySpanCollector(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause == Cause.ABANDONED) {
+            return true;
+        }
+        if (spans.size() == capacity) {
+            spans.removeFirst();
+        }
+        spans.addLast(new MutableSpan(span));
+        return true;
+    }
+
+    public synchronized List<MutableSpan> getSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    public synchronized List<MutableSpan> getTrace(String traceId) {
+        return spans.stream().filter(span -> span.traceId().equals(traceId)).collect(Collectors.toList());
+    }
+
+    public synchronized void clear() {
+        spans.clear();
+    }
+}
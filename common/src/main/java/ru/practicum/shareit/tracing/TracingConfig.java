@@ -0,0 +1,29 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Registers the span exporter chosen by {@code shareit.tracing.exporter}; Sleuth hands every finished span to
+ * the span handlers of the context.
+ */
+@Configuration
+public class TracingConfig {
+    @Bean
+    @ConditionalOnProperty(name = "shareit.tracing.exporter", havingValue = "file")
+    public FileSpanExporter fileSpanExporter(TracingProperties properties,
+                                             @Value("${spring.application.name:shareit}") String application) {
+        Path file = properties.getFile() == null ? Path.of("traces", application + ".ndjson") : properties.getFile();
+        return new FileSpanExporter(file, properties.getQueueSize());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.tracing.exporter", havingValue = "memory")
+    public InMemorySpanCollector inMemorySpanCollector(TracingProperties properties) {
+        return new InMemorySpanCollector(properties.getCapacity());
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.enums.TraceExporter;
+
+import java.nio.file.Path;
+
+/**
+ * Where the finished spans go besides the logs: nowhere, to {@code file} as one Zipkin JSON span per line, or to
+ * an in-memory collector keeping the last {@code capacity} spans. The file defaults to
+ * {@code traces/<spring.application.name>.ndjson}, so the gateway and the server write to files of their own. The file exporter queues up to
+ * {@code queueSize} spans for its writer thread and drops the spans that do not fit.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "shareit.tracing")
+public class TracingProperties {
+    private TraceExporter exporter = TraceExporter.NONE;
+    private Path file;
+    private int capacity = 10_000;
+    private int queueSize = 10_000;
+}
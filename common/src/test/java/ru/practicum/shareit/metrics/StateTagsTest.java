@@ -0,0 +1,33 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Tags;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.enums.State;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StateTagsTest {
+    @Test
+    void testStateTag() {
+        StateTags stateTags = new StateTags();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookings");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertEquals(Tags.of("state", "none"), stateTags.getTags(request, response, null, null));
+        request.setParameter("state", "waiting");
+        assertEquals(Tags.of("state", "WAITING"), stateTags.getTags(request, response, null, null));
+        request.setParameter("state", "UNSUPPORTED_STATUS");
+        assertEquals(Tags.of("state", "unknown"), stateTags.getTags(request, response, null, null));
+    }
+
+    @Test
+    void testStateIgnoresCase() {
+        assertEquals(Optional.of(State.CURRENT), State.from("Current"));
+        assertEquals(Optional.empty(), State.from("UNSUPPORTED_STATUS"));
+        assertEquals(Optional.empty(), State.from(null));
+    }
+}
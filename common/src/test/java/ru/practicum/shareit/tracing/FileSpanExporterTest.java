@@ -0,0 +1,62 @@
+package ru.practicum.shareit.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileSpanExporterTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    @SneakyThrows
+    void testFinishedSpansAreWrittenAsJsonLines() {
+        Path file = directory.resolve("traces").resolve("server.ndjson");
+        TraceContext context = TraceContext.newBuilder().traceId(1).spanId(2).build();
+        try (FileSpanExporter exporter = new FileSpanExporter(file, 100)) {
+            exporter.end(context, span("first"), SpanHandler.Cause.FINISHED);
+            exporter.end(context, span("abandoned"), SpanHandler.Cause.ABANDONED);
+            exporter.end(context, span("second"), SpanHandler.Cause.FINISHED);
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("{") && lines.get(0).contains("\"name\":\"first\""));
+        assertTrue(lines.get(1).contains("\"name\":\"second\""));
+    }
+
+    @Test
+    @SneakyThrows
+    void testSpansThatDoNotFitTheQueueAreDropped() {
+        Path file = directory.resolve("dropped.ndjson");
+        TraceContext context = TraceContext.newBuilder().traceId(1).spanId(2).build();
+        FileSpanExporter exporter = new FileSpanExporter(file, 1);
+        for (int i = 0; i < 1000; i++) {
+            exporter.end(context, span("span" + i), SpanHandler.Cause.FINISHED);
+        }
+        exporter.close();
+        exporter.end(context, span("closed"), SpanHandler.Cause.FINISHED);
+
+        assertEquals(1001, Files.readAllLines(file).size() + exporter.getDropped());
+    }
+
+    private static MutableSpan span(String name) {
+        MutableSpan span = new MutableSpan();
+        span.traceId("0000000000000001");
+        span.id("0000000000000002");
+        span.name(name);
+        span.startTimestamp(1_000L);
+        span.finishTimestamp(2_000L);
+        return span;
+    }
+}
@@ -1,16 +1,20 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
-import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.WebClientFactory;
+import ru.practicum.shareit.enums.State;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Component
@@ -18,46 +22,61 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(WebClientFactory webClientFactory) {
+        super(webClientFactory.create("bookings", API_PREFIX));
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<byte[]>> getBookings(long userId, State state, int from, int size,
+                                                    @Nullable String cursor) {
+        return get("?" + pageQuery(cursor), userId, pageParameters(state, from, size, cursor));
     }
 
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<byte[]>> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<byte[]>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> updateBooking(long userId, long bookingId, boolean approved) {
+    public Mono<ResponseEntity<byte[]>> updateBooking(long userId, long bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBookingsByItemsOfUser(long userId, BookingState state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<byte[]>> updateBookings(long userId, List<BookingDecisionDto> decisions) {
+        return patch("", userId, decisions);
+    }
+
+    public Mono<ResponseEntity<byte[]>> getBookingsByItemsOfUser(long userId, State state, int from, int size,
+                                                                 @Nullable String cursor) {
+        return get("/owner?" + pageQuery(cursor), userId, pageParameters(state, from, size, cursor));
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportBookings(long userId) {
+        return download("/export", userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportBookingsByItemsOfUser(long userId) {
+        return download("/owner/export", userId);
+    }
+
+    private static String pageQuery(@Nullable String cursor) {
+        return cursor == null ? "state={state}&from={from}&size={size}" : "state={state}&size={size}&cursor={cursor}";
+    }
+
+    private static Map<String, Object> pageParameters(State state, int from, int size, @Nullable String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("size", size);
+        if (cursor == null) {
+            parameters.put("from", from);
+        } else {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
 }
@@ -14,13 +14,20 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ResponseRelay;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
-import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.enums.State;
 import ru.practicum.shareit.exceptions.UnknownState;
+import ru.practicum.shareit.exceptions.ValidationException;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.util.List;
 
 import static ru.practicum.shareit.variables.Variables.HEADER;
 
@@ -30,28 +37,32 @@ import static ru.practicum.shareit.variables.Variables.HEADER;
 @Slf4j
 @Validated
 public class BookingController {
+	private static final int MAX_DECISIONS = 500;
+
 	private final BookingClient bookingClient;
 
 	@GetMapping
-	public ResponseEntity<Object> getBookings(@RequestHeader(HEADER) long userId,
+	public Mono<ResponseEntity<byte[]>> getBookings(@RequestHeader(HEADER) long userId,
 			@RequestParam(name = "state", defaultValue = "all") String stateParam,
-			@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
-			@Positive @RequestParam(name = "size", defaultValue = "10") int size) {
-		BookingState state = BookingState.from(stateParam)
+			@PositiveOrZero @RequestParam(name = "from", required = false) Integer from,
+			@Positive @RequestParam(name = "size", defaultValue = "10") int size,
+			@RequestParam(name = "cursor", required = false) String cursor) {
+		State state = State.from(stateParam)
 				.orElseThrow(() -> new UnknownState("Unknown state: " + stateParam));
-		log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-		return bookingClient.getBookings(userId, state, from, size);
+		log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size,
+				cursor);
+		return bookingClient.getBookings(userId, state, offset(from, cursor), size, cursor);
 	}
 
 	@PostMapping
-	public ResponseEntity<Object> bookItem(@RequestHeader(HEADER) long userId,
+	public Mono<ResponseEntity<byte[]>> bookItem(@RequestHeader(HEADER) long userId,
 			@RequestBody @Valid BookItemRequestDto requestDto) {
 		log.info("Creating booking {}, userId={}", requestDto, userId);
 		return bookingClient.bookItem(userId, requestDto);
 	}
 
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getBooking(@RequestHeader(HEADER) long userId,
+	public Mono<ResponseEntity<byte[]>> getBooking(@RequestHeader(HEADER) long userId,
 			@PathVariable Long bookingId) {
 		log.info("Get booking {}, userId={}", bookingId, userId);
 		return bookingClient.getBooking(userId, bookingId);
@@ -60,19 +71,54 @@ public class BookingController {
 
 
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> updateBooking(@RequestHeader(HEADER) long userId, @PathVariable long bookingId,
+	public Mono<ResponseEntity<byte[]>> updateBooking(@RequestHeader(HEADER) long userId, @PathVariable long bookingId,
 									@RequestParam boolean approved) {
 		return bookingClient.updateBooking(userId, bookingId, approved);
 	}
 
+	@PatchMapping
+	public Mono<ResponseEntity<byte[]>> updateBookings(@RequestHeader(HEADER) long userId,
+			@RequestBody List<BookingDecisionDto> decisions) {
+		if (decisions.isEmpty() || decisions.size() > MAX_DECISIONS) {
+			throw new ValidationException("From 1 to " + MAX_DECISIONS + " bookings can be updated at once");
+		}
+		log.info("Updating {} bookings, userId={}", decisions.size(), userId);
+		return bookingClient.updateBookings(userId, decisions);
+	}
+
 	@GetMapping("/owner")
 	@ResponseBody
-	public ResponseEntity<Object> getBookingsByItemsOfUser(@RequestHeader(HEADER) long userId,
+	public Mono<ResponseEntity<byte[]>> getBookingsByItemsOfUser(@RequestHeader(HEADER) long userId,
 			   @RequestParam(name = "state", defaultValue = "all") String stateParam,
-			   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
-			   @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
-		BookingState state = BookingState.from(stateParam)
+			   @PositiveOrZero @RequestParam(name = "from", required = false) Integer from,
+			   @Positive @RequestParam(name = "size", defaultValue = "10") int size,
+			   @RequestParam(name = "cursor", required = false) String cursor) {
+		State state = State.from(stateParam)
 				.orElseThrow(() -> new UnknownState("Unknown state: " + stateParam));
-		return bookingClient.getBookingsByItemsOfUser(userId, state, from, size);
+		return bookingClient.getBookingsByItemsOfUser(userId, state, offset(from, cursor), size, cursor);
+	}
+
+	@GetMapping("/export")
+	public void exportBookings(@RequestHeader(HEADER) long userId, HttpServletResponse response) throws IOException {
+		log.info("Export bookings, userId={}", userId);
+		ResponseRelay.relay(bookingClient.exportBookings(userId), response);
+	}
+
+	@GetMapping("/owner/export")
+	public void exportBookingsByItemsOfUser(@RequestHeader(HEADER) long userId, HttpServletResponse response)
+			throws IOException {
+		log.info("Export bookings of the items, userId={}", userId);
+		ResponseRelay.relay(bookingClient.exportBookingsByItemsOfUser(userId), response);
+	}
+
+	/**
+	 * A page is either an offset or a cursor. The cursor already holds the position, so an offset next to it would
+	 * be ignored by the server and is rejected here instead.
+	 */
+	private static int offset(Integer from, String cursor) {
+		if (cursor != null && from != null) {
+			throw new ValidationException("From cannot be combined with a cursor");
+		}
+		return from == null ? 0 : from;
 	}
 }
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+public class ResponseRelay {
+    private ResponseRelay() {
+    }
+
+    /**
+     * Copies a streamed server response to the servlet response as it arrives, so the gateway holds one chunk
+     * at a time. Blocks the servlet thread until the server has written the whole body; a failure to reach the
+     * server is thrown before anything is written.
+     */
+    public static void relay(Mono<ResponseEntity<Flux<DataBuffer>>> download, HttpServletResponse response)
+            throws IOException {
+        ResponseEntity<Flux<DataBuffer>> entity = download.block();
+        response.setStatus(entity.getStatusCodeValue());
+        entity.getHeaders().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        DataBufferUtils.write(entity.getBody(), response.getOutputStream())
+                .doOnNext(DataBufferUtils::release)
+                .blockLast();
+    }
+}
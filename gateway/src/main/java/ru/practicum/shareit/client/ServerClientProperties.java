@@ -0,0 +1,41 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Connection settings for the calls from the gateway to the ShareIt server. Every client gets its own
+ * connection pool, so the route limits keep one slow endpoint from taking the connections of the others.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "shareit-server")
+public class ServerClientProperties {
+    private String url;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private DataSize maxResponseSize = DataSize.ofMegabytes(16);
+    private Route defaults = new Route();
+    private Map<String, Route> routes = new HashMap<>();
+
+    public Route getRoute(String name) {
+        return routes.getOrDefault(name, defaults);
+    }
+
+    @Getter
+    @Setter
+    public static class Route {
+        private int maxConnections = 50;
+        private int maxPending = 200;
+        private Duration pendingTimeout = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Component
+public class WebClientFactory {
+    public static final String ROUTE_ATTRIBUTE = WebClientFactory.class.getName() + ".route";
+
+    private final ServerClientProperties properties;
+    private final WebClient.Builder builder;
+
+    @Autowired
+    public WebClientFactory(ServerClientProperties properties, WebClient.Builder builder) {
+        this.properties = properties;
+        this.builder = builder;
+    }
+
+    public WebClient create(String route, String apiPrefix) {
+        ServerClientProperties.Route limits = properties.getRoute(route);
+        ConnectionProvider provider = ConnectionProvider.builder("shareit-server-" + route)
+                .maxConnections(limits.getMaxConnections())
+                .pendingAcquireMaxCount(limits.getMaxPending())
+                .pendingAcquireTimeout(limits.getPendingTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .metrics(true)
+                .build();
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout())
+                .keepAlive(true);
+        return builder.clone()
+                .baseUrl(properties.getUrl() + apiPrefix)
+                .defaultRequest(request -> request.attribute(ROUTE_ATTRIBUTE, route))
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs()
+                        .maxInMemorySize((int) properties.getMaxResponseSize().toBytes()))
+                .build();
+    }
+}
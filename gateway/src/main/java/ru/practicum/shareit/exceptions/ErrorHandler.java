@@ -30,6 +30,20 @@ public class ErrorHandler {
         return Map.of("Data validation error", exception.getMessage());
     }
 
+    @ExceptionHandler(ServerTimeout.class)
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public Map<String, String> handleServerTimeout(final ServerTimeout exception) {
+        log.warn(exception.getMessage());
+        return Map.of("error", exception.getMessage());
+    }
+
+    @ExceptionHandler(ServerUnavailable.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, String> handleServerUnavailable(final ServerUnavailable exception) {
+        log.warn(exception.getMessage());
+        return Map.of("error", exception.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public Map<String, String> handleInternalErrors(final RuntimeException exception) {
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exceptions;
+
+public class ServerTimeout extends RuntimeException {
+    public ServerTimeout(String message) {
+        super(message);
+    }
+}
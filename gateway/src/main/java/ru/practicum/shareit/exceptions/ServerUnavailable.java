@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exceptions;
+
+public class ServerUnavailable extends RuntimeException {
+    public ServerUnavailable(String message) {
+        super(message);
+    }
+}
@@ -1,56 +1,73 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.WebClientFactory;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.InputStream;
 import java.util.Map;
 
 @Component
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final int CHUNK_SIZE = 8192;
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(WebClientFactory webClientFactory) {
+        super(webClientFactory.create("items", API_PREFIX));
     }
 
-    public ResponseEntity<Object> createItem(long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<byte[]>> createItem(long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> createComment(long userId, long itemId, CommentDto commentDto) {
+    public Mono<ResponseEntity<byte[]>> createComment(long userId, long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 
-    public ResponseEntity<Object> getItemsByUser(long userId) {
+    public Mono<ResponseEntity<byte[]>> getItemsByUser(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> updateItem(long userId, long itemId, ItemDto itemDto) {
+    public Mono<ResponseEntity<byte[]>> updateItem(long userId, long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemById(long itemId, long userId) {
+    public Mono<ResponseEntity<byte[]>> getItemById(long itemId, long userId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> searchItems(String text) {
+    public Mono<ResponseEntity<byte[]>> searchItems(String text, int from, int size) {
         Map<String, Object> parameters = Map.of(
-                "text", text
+                "text", text,
+                "from", from,
+                "size", size
         );
-        return get("/search/?text={text}", null, parameters);
+        return get("/search/?text={text}&from={from}&size={size}", null, parameters);
+    }
+
+    /**
+     * The request body is read on a worker thread, since reading a servlet input stream blocks.
+     */
+    public Mono<ResponseEntity<byte[]>> importItems(long userId, MediaType contentType, InputStream body) {
+        Flux<DataBuffer> content = DataBufferUtils.readInputStream(() -> body, DefaultDataBufferFactory.sharedInstance,
+                        CHUNK_SIZE)
+                .subscribeOn(Schedulers.boundedElastic());
+        return upload("/import", userId, contentType, content);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportItems(long userId) {
+        return download("/export", userId, MediaType.APPLICATION_NDJSON);
     }
 }
@@ -2,7 +2,9 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -15,11 +17,19 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ResponseRelay;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.io.InputStream;
 
+import static ru.practicum.shareit.variables.Variables.CSV;
 import static ru.practicum.shareit.variables.Variables.HEADER;
 
 @Controller
@@ -32,34 +42,51 @@ public class ItemController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> createItem(@RequestHeader(HEADER) long userId, @RequestBody @Valid ItemDto itemDto) {
+    public Mono<ResponseEntity<byte[]>> createItem(@RequestHeader(HEADER) long userId, @RequestBody @Valid ItemDto itemDto) {
         return itemClient.createItem(userId, itemDto);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader(HEADER) long userId, @PathVariable long itemId,
+    public Mono<ResponseEntity<byte[]>> createComment(@RequestHeader(HEADER) long userId, @PathVariable long itemId,
                                     @RequestBody @Valid CommentDto commentDto) {
         return itemClient.createComment(userId, itemId, commentDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemsByUser(@RequestHeader(HEADER) long userId) {
+    public Mono<ResponseEntity<byte[]>> getItemsByUser(@RequestHeader(HEADER) long userId) {
         return itemClient.getItemsByUser(userId);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(HEADER) long userId, @PathVariable long itemId,
+    public Mono<ResponseEntity<byte[]>> updateItem(@RequestHeader(HEADER) long userId, @PathVariable long itemId,
                               @RequestBody ItemDto itemUpdate) {
         return itemClient.updateItem(userId, itemId, itemUpdate);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@RequestHeader(HEADER) long userId, @PathVariable long itemId) {
+    public Mono<ResponseEntity<byte[]>> getItem(@RequestHeader(HEADER) long userId, @PathVariable long itemId) {
         return itemClient.getItemById(itemId, userId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam String text) {
-        return itemClient.searchItems(text);
+    public Mono<ResponseEntity<byte[]>> searchItems(@RequestParam String text,
+                                              @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                              @Positive @RequestParam(defaultValue = "10") int size) {
+        return itemClient.searchItems(text, from, size);
+    }
+
+    /**
+     * The payload is passed to the server as it arrives, the lines are validated there one by one.
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, CSV})
+    public Mono<ResponseEntity<byte[]>> importItems(@RequestHeader(HEADER) long userId,
+                                                    @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                    InputStream body) {
+        return itemClient.importItems(userId, contentType, body);
+    }
+
+    @GetMapping("/export")
+    public void exportItems(@RequestHeader(HEADER) long userId, HttpServletResponse response) throws IOException {
+        ResponseRelay.relay(itemClient.exportItems(userId), response);
     }
 }
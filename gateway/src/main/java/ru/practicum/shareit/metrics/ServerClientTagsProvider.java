@@ -0,0 +1,35 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.web.reactive.client.WebClientExchangeTags;
+import org.springframework.boot.actuate.metrics.web.reactive.client.WebClientExchangeTagsProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.util.UriComponentsBuilder;
+import ru.practicum.shareit.client.WebClientFactory;
+
+import java.util.regex.Pattern;
+
+/**
+ * Tags the {@code http.client.requests} timers of the calls to the server. The uri tag is the request path
+ * with the ids replaced, since the clients build their paths by concatenation; the route tag names the
+ * connection pool the call went through.
+ */
+@Component
+public class ServerClientTagsProvider implements WebClientExchangeTagsProvider {
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    @Override
+    public Iterable<Tag> tags(ClientRequest request, ClientResponse response, Throwable throwable) {
+        return Tags.of(WebClientExchangeTags.method(request),
+                Tag.of("uri", ID_SEGMENT.matcher(request.url().getPath()).replaceAll("/{id}")),
+                WebClientExchangeTags.status(response, throwable),
+                WebClientExchangeTags.outcome(response),
+                Tag.of("route", request.attribute(WebClientFactory.ROUTE_ATTRIBUTE).map(String::valueOf)
+                        .orElse("none")),
+                StateTags.state(UriComponentsBuilder.fromUri(request.url()).build().getQueryParams()
+                        .getFirst("state")));
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.constraints.Positive;
@@ -28,17 +29,17 @@ public class RequestController {
     private final RequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@RequestHeader(HEADER) long userId, @RequestBody ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<byte[]>> createRequest(@RequestHeader(HEADER) long userId, @RequestBody ItemRequestDto itemRequestDto) {
         return requestClient.createRequest(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getOwnRequests(@RequestHeader(HEADER) long userId) {
+    public Mono<ResponseEntity<byte[]>> getOwnRequests(@RequestHeader(HEADER) long userId) {
         return requestClient.getOwnRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader(HEADER) long userId,
+    public Mono<ResponseEntity<byte[]>> getAllRequests(@RequestHeader(HEADER) long userId,
                                                @PositiveOrZero @RequestParam(defaultValue = "0") int from,
                                                @Positive @RequestParam (defaultValue = "20") int size) {
 
@@ -46,7 +47,7 @@ public class RequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@RequestHeader(HEADER) long userId, @PathVariable long requestId) {
+    public Mono<ResponseEntity<byte[]>> getRequestById(@RequestHeader(HEADER) long userId, @PathVariable long requestId) {
         return requestClient.getRequestById(userId, requestId);
     }
 }
@@ -9,25 +9,42 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.BookingClient;
 import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
-import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.enums.State;
+import ru.practicum.shareit.exceptions.ValidationException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.variables.Variables.HEADER;
+import static ru.practicum.shareit.variables.Variables.NEXT_CURSOR;
 
 @ExtendWith(MockitoExtension.class)
 class BookingControllerTest {
@@ -40,7 +57,7 @@ class BookingControllerTest {
     private long userId;
     private long bookingId;
     private BookItemRequestDto bookingToCreate;
-    private ResponseEntity<Object> entity;
+    private ResponseEntity<byte[]> entity;
 
     @BeforeEach
     void initTest() {
@@ -53,31 +70,56 @@ class BookingControllerTest {
                 .start(LocalDateTime.now().plusDays(1))
                 .end(LocalDateTime.now().plusDays(2))
                 .build();
-        entity = new ResponseEntity<>(bookingToCreate, HttpStatus.OK);
+        entity = json(bookingToCreate, HttpStatus.OK);
     }
 
     @Test
     @SneakyThrows
     void getBookings() {
-        when(client.getBookings(userId, BookingState.ALL, 0, 10)).thenReturn(entity);
+        when(client.getBookings(userId, State.ALL, 0, 10, null)).thenReturn(Mono.just(entity));
 
-        String response = mockMvc.perform(get("/bookings/").header(HEADER, userId)
+        String response = perform(get("/bookings/").header(HEADER, userId)
                         .contentType("application/json")
                         .content(objectMapper.writeValueAsString(bookingToCreate)))
                 .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
 
-        verify(client).getBookings(userId, BookingState.ALL, 0, 10);
+        verify(client).getBookings(userId, State.ALL, 0, 10, null);
         assertEquals(objectMapper.writeValueAsString(bookingToCreate), response);
     }
 
+    @Test
+    @SneakyThrows
+    void getBookingsWithCursor() {
+        String cursor = "MjAyMy0wMS0wMVQxMDowMCwxMA";
+        when(client.getBookings(userId, State.ALL, 0, 10, cursor))
+                .thenReturn(Mono.just(ResponseEntity.ok().header(NEXT_CURSOR, "next")
+                        .body(objectMapper.writeValueAsBytes(bookingToCreate))));
+
+        perform(get("/bookings?cursor=" + cursor).header(HEADER, userId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR, "next"));
+
+        verify(client).getBookings(userId, State.ALL, 0, 10, cursor);
+    }
+
+    @Test
+    void getBookingsWithOffsetAndCursor() {
+        String cursor = "MjAyMy0wMS0wMVQxMDowMCwxMA";
+        assertThrows(ValidationException.class, () -> controller.getBookings(userId, "all", 10, 10, cursor));
+        assertThrows(ValidationException.class,
+                () -> controller.getBookingsByItemsOfUser(userId, "all", 0, 10, cursor));
+
+        verifyNoInteractions(client);
+    }
+
     @Test
     @SneakyThrows
     void bookItem() {
         when(client.bookItem(userId,
                 objectMapper.readValue(objectMapper.writeValueAsString(bookingToCreate), BookItemRequestDto.class)))
-                .thenReturn(entity);
+                .thenReturn(Mono.just(entity));
 
-        String response = mockMvc.perform(post("/bookings").header(HEADER, userId)
+        String response = perform(post("/bookings").header(HEADER, userId)
                         .contentType("application/json")
                         .content(objectMapper.writeValueAsString(bookingToCreate)))
                 .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
@@ -90,9 +132,9 @@ class BookingControllerTest {
     @Test
     @SneakyThrows
     void getBooking() {
-        when(client.getBooking(userId, bookingId)).thenReturn(entity);
+        when(client.getBooking(userId, bookingId)).thenReturn(Mono.just(entity));
 
-        String response = mockMvc.perform(get("/bookings/" + bookingId).header(HEADER, userId)
+        String response = perform(get("/bookings/" + bookingId).header(HEADER, userId)
                         .contentType("application/json")
                         .content(objectMapper.writeValueAsString(bookingToCreate)))
                 .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
@@ -104,9 +146,9 @@ class BookingControllerTest {
     @Test
     @SneakyThrows
     void updateBooking() {
-        when(client.updateBooking(userId, bookingId, true)).thenReturn(entity);
+        when(client.updateBooking(userId, bookingId, true)).thenReturn(Mono.just(entity));
 
-        String response = mockMvc.perform(patch("/bookings/" + bookingId + "?approved=true")
+        String response = perform(patch("/bookings/" + bookingId + "?approved=true")
                         .header("X-Sharer-User-Id", userId)
                         .contentType("application/json")
                         .content(objectMapper.writeValueAsString(bookingToCreate)))
@@ -116,17 +158,63 @@ class BookingControllerTest {
         assertEquals(objectMapper.writeValueAsString(bookingToCreate), response);
     }
 
+    @Test
+    @SneakyThrows
+    void updateBookings() {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1, true), new BookingDecisionDto(2, false));
+        when(client.updateBookings(userId, decisions)).thenReturn(Mono.just(entity));
+
+        String response = perform(patch("/bookings").header(HEADER, userId)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(decisions)))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+
+        verify(client).updateBookings(userId, decisions);
+        assertEquals(objectMapper.writeValueAsString(bookingToCreate), response);
+    }
+
+    @Test
+    void updateBookingsEmpty() {
+        assertThrows(ValidationException.class, () -> controller.updateBookings(userId, List.of()));
+    }
+
     @Test
     @SneakyThrows
     void getBookingsByItemsOfUser() {
-        when(client.getBookingsByItemsOfUser(userId, BookingState.ALL, 0, 20)).thenReturn(entity);
+        when(client.getBookingsByItemsOfUser(userId, State.ALL, 0, 20, null)).thenReturn(Mono.just(entity));
 
-        String response = mockMvc.perform(get("/bookings/owner?state=ALL&from=0&size=20").header(HEADER, userId)
+        String response = perform(get("/bookings/owner?state=ALL&from=0&size=20").header(HEADER, userId)
                         .contentType("application/json")
                         .content(objectMapper.writeValueAsString(bookingToCreate)))
                 .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
 
-        verify(client).getBookingsByItemsOfUser(userId, BookingState.ALL, 0, 20);
+        verify(client).getBookingsByItemsOfUser(userId, State.ALL, 0, 20, null);
         assertEquals(objectMapper.writeValueAsString(bookingToCreate), response);
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void exportBookingsByItemsOfUser() {
+        DefaultDataBufferFactory buffers = DefaultDataBufferFactory.sharedInstance;
+        when(client.exportBookingsByItemsOfUser(userId)).thenReturn(Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Flux.just(buffers.wrap("[{\"id\":1},".getBytes(StandardCharsets.UTF_8)),
+                        buffers.wrap("{\"id\":2}]".getBytes(StandardCharsets.UTF_8))))));
+
+        mockMvc.perform(get("/bookings/owner/export").header(HEADER, userId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("[{\"id\":1},{\"id\":2}]"));
+    }
+
+    @SneakyThrows
+    private ResponseEntity<byte[]> json(Object body, HttpStatus status) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON)
+                .body(objectMapper.writeValueAsBytes(body));
+    }
+
+    @SneakyThrows
+    private ResultActions perform(RequestBuilder builder) {
+        return mockMvc.perform(asyncDispatch(mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn()));
+    }
+}
@@ -9,24 +9,36 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.ItemClient;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.variables.Variables.HEADER;
 
@@ -41,7 +53,7 @@ class ItemControllerTest {
     private long userId;
     private long itemId;
     private ItemDto itemToCreate;
-    private ResponseEntity<Object> entity;
+    private ResponseEntity<byte[]> entity;
 
     @BeforeEach
     void initTest() {
@@ -51,16 +63,16 @@ class ItemControllerTest {
         mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
         itemToCreate = ItemDto.builder().id(itemId).name("name").description("description")
                 .available(true).requestId(requestId).build();
-        entity = new ResponseEntity<>(itemToCreate, HttpStatus.OK);
+        entity = json(itemToCreate, HttpStatus.OK);
     }
 
     @Test
     @SneakyThrows
     void createItem() {
-        entity = new ResponseEntity<>(itemToCreate, HttpStatus.CREATED);
-        when(client.createItem(userId, itemToCreate)).thenReturn(entity);
+        entity = json(itemToCreate, HttpStatus.CREATED);
+        when(client.createItem(userId, itemToCreate)).thenReturn(Mono.just(entity));
 
-        String response = mockMvc.perform(post("/items").header(HEADER, userId)
+        String response = perform(post("/items").header(HEADER, userId)
                         .contentType("application/json")
                         .content(objectMapper.writeValueAsString(itemToCreate)))
                 .andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
@@ -75,10 +87,10 @@ class ItemControllerTest {
         CommentDto commentToCreate = CommentDto.builder().id(1)
                 .authorId(userId).authorName("User 1").itemId(itemId)
                 .text("Comment 1").created(LocalDateTime.now()).build();
-        entity = new ResponseEntity<>(commentToCreate, HttpStatus.CREATED);
-        when(client.createComment(userId, itemId, commentToCreate)).thenReturn(entity);
+        entity = json(commentToCreate, HttpStatus.CREATED);
+        when(client.createComment(userId, itemId, commentToCreate)).thenReturn(Mono.just(entity));
 
-        String response = mockMvc.perform(post("/items/" + itemId + "/comment").header(HEADER, userId)
+        String response = perform(post("/items/" + itemId + "/comment").header(HEADER, userId)
                         .contentType("application/json")
                         .content(objectMapper.writeValueAsString(commentToCreate)))
                 .andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
@@ -90,9 +102,9 @@ class ItemControllerTest {
     @Test
     @SneakyThrows
     void getItemsByUser() {
-        when(client.getItemsByUser(1)).thenReturn(entity);
+        when(client.getItemsByUser(1)).thenReturn(Mono.just(entity));
 
-        String response = mockMvc.perform(get("/items").header(HEADER, userId)
+        String response = perform(get("/items").header(HEADER, userId)
                         .contentType("application/json"))
                 .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
 
@@ -103,9 +115,9 @@ class ItemControllerTest {
     @Test
     @SneakyThrows
     void updateItem() {
-        when(client.updateItem(userId, itemId, itemToCreate)).thenReturn(entity);
+        when(client.updateItem(userId, itemId, itemToCreate)).thenReturn(Mono.just(entity));
 
-        String response = mockMvc.perform(patch("/items/" + itemId).header(HEADER, userId)
+        String response = perform(patch("/items/" + itemId).header(HEADER, userId)
                         .contentType("application/json")
                         .content(objectMapper.writeValueAsString(itemToCreate)))
                 .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
@@ -117,9 +129,9 @@ class ItemControllerTest {
     @Test
     @SneakyThrows
     void getItem() {
-        when(client.getItemById(1, 1)).thenReturn(entity);
+        when(client.getItemById(1, 1)).thenReturn(Mono.just(entity));
 
-        String response = mockMvc.perform(get("/items/" + itemId).header(HEADER, 1)
+        String response = perform(get("/items/" + itemId).header(HEADER, 1)
                         .contentType("application/json"))
                 .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
 
@@ -131,14 +143,72 @@ class ItemControllerTest {
     @SneakyThrows
     void searchItems() {
         String text = "Дрель";
-        when(client.searchItems(text)).thenReturn(entity);
+        when(client.searchItems(text, 0, 10)).thenReturn(Mono.just(entity));
 
-        String response = mockMvc.perform(get("/items/search?text=" + text)
+        String response = perform(get("/items/search?text=" + text)
                         .header(HEADER, userId)
                         .contentType("application/json"))
                 .andExpect(status().isOk()).andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
 
-        verify(client).searchItems("Дрель");
+        verify(client).searchItems("Дрель", 0, 10);
         assertEquals(objectMapper.writeValueAsString(itemToCreate), response);
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void importItems() {
+        entity = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .body("{\"imported\":1,\"failed\":0,\"errors\":[]}".getBytes(StandardCharsets.UTF_8));
+        when(client.importItems(eq(userId), eq(MediaType.valueOf("text/csv")), any(InputStream.class)))
+                .thenReturn(Mono.just(entity));
+
+        String response = perform(post("/items/import").header(HEADER, userId)
+                        .contentType("text/csv")
+                        .content("name,description,available\nДрель,Простая дрель,true\n"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+
+        assertEquals("{\"imported\":1,\"failed\":0,\"errors\":[]}", response);
+    }
+
+    @Test
+    @SneakyThrows
+    void exportItems() {
+        String line = objectMapper.writeValueAsString(itemToCreate) + "\n";
+        DefaultDataBufferFactory buffers = DefaultDataBufferFactory.sharedInstance;
+        when(client.exportItems(userId)).thenReturn(Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(Flux.just(buffers.wrap(line.getBytes(StandardCharsets.UTF_8)),
+                        buffers.wrap(line.getBytes(StandardCharsets.UTF_8))))));
+
+        String response = mockMvc.perform(get("/items/export").header(HEADER, userId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(line + line, response);
+    }
+
+    @Test
+    @SneakyThrows
+    void exportItemsNoUser() {
+        when(client.exportItems(userId)).thenReturn(Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Flux.just(DefaultDataBufferFactory.sharedInstance
+                        .wrap("{\"error\":\"No such user\"}".getBytes(StandardCharsets.UTF_8))))));
+
+        mockMvc.perform(get("/items/export").header(HEADER, userId))
+                .andExpect(status().isNotFound())
+                .andExpect(content().json("{\"error\":\"No such user\"}"));
+    }
+
+    @SneakyThrows
+    private ResponseEntity<byte[]> json(Object body, HttpStatus status) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON)
+                .body(objectMapper.writeValueAsBytes(body));
+    }
+
+    @SneakyThrows
+    private ResultActions perform(RequestBuilder builder) {
+        return mockMvc.perform(asyncDispatch(mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn()));
+    }
+}
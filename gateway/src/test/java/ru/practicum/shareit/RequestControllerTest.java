@@ -10,9 +10,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.RequestClient;
 import ru.practicum.shareit.request.RequestController;
@@ -25,8 +29,10 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.variables.Variables.HEADER;
 
@@ -41,7 +47,7 @@ class RequestControllerTest {
     private long userId;
     private long requestId;
     private ItemRequestDto request;
-    private ResponseEntity<Object> entity;
+    private ResponseEntity<byte[]> entity;
 
     @BeforeEach
     void initTest() {
@@ -53,15 +59,15 @@ class RequestControllerTest {
                 .available(true).requestId(requestId).build();
         request = ItemRequestDto.builder().id(requestId).description("Request 1").requestor(userId)
                 .created(LocalDateTime.now()).items(List.of(itemToCreate)).build();
-        entity = new ResponseEntity<>(request, HttpStatus.OK);
+        entity = json(request, HttpStatus.OK);
     }
 
     @Test
     @SneakyThrows
     void createRequest() {
-        when(client.createRequest(any(Long.class), any(ItemRequestDto.class))).thenReturn(entity);
+        when(client.createRequest(any(Long.class), any(ItemRequestDto.class))).thenReturn(Mono.just(entity));
 
-        String response = mockMvc.perform(post("/requests")
+        String response = perform(post("/requests")
                         .header(HEADER, userId)
                         .contentType("application/json")
                         .content(objectMapper.writeValueAsString(request)))
@@ -73,9 +79,9 @@ class RequestControllerTest {
     @Test
     @SneakyThrows
     void getOwnRequests() {
-        when(client.getOwnRequests(userId)).thenReturn(entity);
+        when(client.getOwnRequests(userId)).thenReturn(Mono.just(entity));
 
-        String response = mockMvc.perform(get("/requests")
+        String response = perform(get("/requests")
                         .header(HEADER, userId)
                         .contentType("application/json")
                         .content(objectMapper.writeValueAsString(request)))
@@ -87,9 +93,9 @@ class RequestControllerTest {
     @Test
     @SneakyThrows
     void getAllRequests() {
-        when(client.getAllRequests(userId, 0, 20)).thenReturn(entity);
+        when(client.getAllRequests(userId, 0, 20)).thenReturn(Mono.just(entity));
 
-        String response = mockMvc.perform(get("/requests/all?from=0&size=20")
+        String response = perform(get("/requests/all?from=0&size=20")
                         .header(HEADER, userId)
                         .contentType("application/json")
                         .content(objectMapper.writeValueAsString(request)))
@@ -101,9 +107,9 @@ class RequestControllerTest {
     @Test
     @SneakyThrows
     void getRequestById() {
-        when(client.getRequestById(requestId, userId)).thenReturn(entity);
+        when(client.getRequestById(requestId, userId)).thenReturn(Mono.just(entity));
 
-        String response = mockMvc.perform(get("/requests/" + requestId)
+        String response = perform(get("/requests/" + requestId)
                         .header(HEADER, userId)
                         .contentType("application/json")
                         .content(objectMapper.writeValueAsString(request)))
@@ -111,4 +117,15 @@ class RequestControllerTest {
 
         assertEquals(objectMapper.writeValueAsString(request), response);
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    private ResponseEntity<byte[]> json(Object body, HttpStatus status) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON)
+                .body(objectMapper.writeValueAsBytes(body));
+    }
+
+    @SneakyThrows
+    private ResultActions perform(RequestBuilder builder) {
+        return mockMvc.perform(asyncDispatch(mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn()));
+    }
+}
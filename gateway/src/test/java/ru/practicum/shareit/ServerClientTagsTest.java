@@ -0,0 +1,32 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import ru.practicum.shareit.client.WebClientFactory;
+import ru.practicum.shareit.metrics.ServerClientTagsProvider;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ServerClientTagsTest {
+    @Test
+    void testClientTags() {
+        ClientRequest request = ClientRequest.create(HttpMethod.GET,
+                        URI.create("http://localhost:9090/bookings/12/items/3?state=FUTURE&from=0&size=10"))
+                .attribute(WebClientFactory.ROUTE_ATTRIBUTE, "bookings")
+                .build();
+        ClientResponse response = ClientResponse.create(HttpStatus.OK).build();
+
+        Tags tags = Tags.of(new ServerClientTagsProvider().tags(request, response, null));
+
+        assertEquals(Tags.of(Tag.of("method", "GET"), Tag.of("uri", "/bookings/{id}/items/{id}"),
+                Tag.of("status", "200"), Tag.of("outcome", "SUCCESS"), Tag.of("route", "bookings"),
+                Tag.of("state", "FUTURE")), tags);
+    }
+}
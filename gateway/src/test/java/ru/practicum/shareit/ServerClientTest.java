@@ -0,0 +1,232 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.metrics.AutoTimer;
+import org.springframework.boot.actuate.metrics.web.reactive.client.MetricsWebClientCustomizer;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ServerClientProperties;
+import ru.practicum.shareit.client.WebClientFactory;
+import ru.practicum.shareit.exceptions.ServerTimeout;
+import ru.practicum.shareit.exceptions.ServerUnavailable;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.metrics.ServerClientTagsProvider;
+import ru.practicum.shareit.user.UserClient;
+
+import java.io.ByteArrayInputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static ru.practicum.shareit.variables.Variables.HEADER;
+import static ru.practicum.shareit.variables.Variables.NEXT_CURSOR;
+
+class ServerClientTest {
+    private static final String USER = "{\"id\":1,  \"name\":\"name\"}";
+    private static final String NOT_FOUND = "{\"error\":\"User not found\"}";
+
+    private HttpServer server;
+    private ServerClientProperties properties;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicReference<String> sharerHeader = new AtomicReference<>();
+
+    @BeforeEach
+    @SneakyThrows
+    void initTest() {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/users/1", exchange -> {
+            sharerHeader.set(exchange.getRequestHeaders().getFirst(HEADER));
+            exchange.getResponseHeaders().set(NEXT_CURSOR, "next");
+            exchange.getResponseHeaders().set("Keep-Alive", "timeout=60");
+            send(exchange, 200, USER);
+        });
+        server.createContext("/users/2", exchange -> send(exchange, 404, NOT_FOUND));
+        server.createContext("/users/3", exchange -> {
+            await();
+            send(exchange, 200, "{}");
+        });
+        server.createContext("/items/import", exchange -> {
+            sharerHeader.set(exchange.getRequestHeaders().getFirst("Content-Type"));
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            send(exchange, 200, "{\"length\":" + body.length() + "}");
+        });
+        server.createContext("/items/export", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+            exchange.sendResponseHeaders(200, 0);
+            for (int i = 0; i < 3; i++) {
+                exchange.getResponseBody().write(("{\"id\":" + i + "}\n").getBytes(StandardCharsets.UTF_8));
+                exchange.getResponseBody().flush();
+            }
+            exchange.close();
+        });
+        server.start();
+
+        properties = new ServerClientProperties();
+        properties.setUrl("http://localhost:" + server.getAddress().getPort());
+        properties.setReadTimeout(Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void testResponseIsPassedThrough() {
+        ResponseEntity<byte[]> response = client().getUser(1).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(USER, new String(response.getBody(), StandardCharsets.UTF_8));
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("next", response.getHeaders().getFirst(NEXT_CURSOR));
+        assertFalse(response.getHeaders().containsKey("Keep-Alive"));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.CONTENT_LENGTH));
+        assertEquals("1", sharerHeader.get());
+    }
+
+    @Test
+    void testErrorStatusIsPassedThrough() {
+        ResponseEntity<byte[]> response = client().getUser(2).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(NOT_FOUND, new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testReadTimeout() {
+        properties.setReadTimeout(Duration.ofMillis(200));
+
+        assertThrows(ServerTimeout.class, () -> client().getUser(3).block());
+    }
+
+    @Test
+    void testRouteLimit() {
+        ServerClientProperties.Route route = new ServerClientProperties.Route();
+        route.setMaxConnections(1);
+        route.setPendingTimeout(Duration.ofMillis(200));
+        properties.setRoutes(Map.of("users", route));
+        UserClient client = client();
+
+        Mono<ResponseEntity<byte[]>> first = client.getUser(3).cache();
+        first.subscribe();
+
+        assertThrows(ServerUnavailable.class, () -> client.getUser(1).block());
+        release.countDown();
+        assertEquals(HttpStatus.OK, first.block().getStatusCode());
+    }
+
+    @Test
+    void testServerDown() {
+        server.stop(0);
+
+        assertThrows(ServerUnavailable.class, () -> client().getUser(1).block());
+    }
+
+    @Test
+    void testUploadIsPassedThrough() {
+        String csv = "name,description,available\n" + "Дрель,Простая дрель,true\n".repeat(2000);
+        ResponseEntity<byte[]> response = itemClient().importItems(1, MediaType.valueOf("text/csv"),
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("{\"length\":" + csv.length() + "}", new String(response.getBody(), StandardCharsets.UTF_8));
+        assertEquals("text/csv", sharerHeader.get());
+    }
+
+    @Test
+    void testDownloadIsPassedThrough() {
+        ResponseEntity<Flux<DataBuffer>> response = itemClient().exportItems(1).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+        String body = read(response.getBody());
+        assertEquals("{\"id\":0}\n{\"id\":1}\n{\"id\":2}\n", body);
+    }
+
+    @Test
+    void testDownloadErrorIsPassedThrough() {
+        server.removeContext("/items/export");
+        server.createContext("/items/export", exchange -> send(exchange, 404, NOT_FOUND));
+
+        ResponseEntity<Flux<DataBuffer>> response = itemClient().exportItems(1).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        String body = read(response.getBody());
+        assertEquals(NOT_FOUND, body);
+    }
+
+    @Test
+    void testCallIsTimedByRoute() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WebClient.Builder builder = WebClient.builder();
+        new MetricsWebClientCustomizer(registry, new ServerClientTagsProvider(), "http.client.requests",
+                AutoTimer.ENABLED).customize(builder);
+        UserClient client = new UserClient(new WebClientFactory(properties, builder));
+
+        client.getUser(1).block();
+        client.getUser(2).block();
+
+        Timer found = registry.get("http.client.requests").tags("route", "users", "uri", "/users/{id}",
+                "status", "200", "method", "GET", "state", "none").timer();
+        assertEquals(1, found.count());
+        assertEquals(1, registry.get("http.client.requests").tags("uri", "/users/{id}", "status", "404").timer()
+                .count());
+    }
+
+    private ItemClient itemClient() {
+        return new ItemClient(new WebClientFactory(properties, WebClient.builder()));
+    }
+
+    private UserClient client() {
+        return new UserClient(new WebClientFactory(properties, WebClient.builder()));
+    }
+
+    private static String read(Flux<DataBuffer> body) {
+        return DataBufferUtils.join(body)
+                .map(buffer -> {
+                    String content = buffer.toString(StandardCharsets.UTF_8);
+                    DataBufferUtils.release(buffer);
+                    return content;
+                })
+                .block();
+    }
+
+    @SneakyThrows
+    private void await() {
+        release.await(5, TimeUnit.SECONDS);
+    }
+
+    @SneakyThrows
+    private static void send(HttpExchange exchange, int status, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit;
+
+import brave.Span;
+import brave.handler.MutableSpan;
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.tracing.InMemorySpanCollector;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"shareit.tracing.exporter=memory", "spring.sleuth.sampler.probability=1.0"})
+@AutoConfigureMockMvc
+class TracingTest {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_ID = "00f067aa0ba902b7";
+    private static final HttpServer SERVER = start();
+    private static final AtomicReference<String> TRACE_PARENT = new AtomicReference<>();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private InMemorySpanCollector collector;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop(0);
+    }
+
+    @BeforeEach
+    void initTest() {
+        collector.clear();
+        TRACE_PARENT.set(null);
+    }
+
+    @Test
+    @SneakyThrows
+    void testTraceContextIsPassedToServer() {
+        perform(get("/users/1").header("traceparent", "00-" + TRACE_ID + "-" + PARENT_ID + "-01"))
+                .andExpect(status().isOk());
+
+        List<MutableSpan> spans = collector.getTrace(TRACE_ID);
+        MutableSpan http = spans.stream().filter(span -> span.name().equals("GET /users/{userId}")).findFirst()
+                .orElse(null);
+        MutableSpan client = spans.stream().filter(span -> span.kind() == Span.Kind.CLIENT).findFirst()
+                .orElse(null);
+        assertNotNull(http, () -> "No HTTP span among " + spans);
+        assertNotNull(client, () -> "No client span among " + spans);
+        assertEquals(PARENT_ID, http.parentId());
+        assertEquals(http.id(), client.parentId());
+        assertEquals("shareit-gateway", http.localServiceName());
+        assertEquals("00-" + TRACE_ID + "-" + client.id() + "-01", TRACE_PARENT.get());
+    }
+
+    @SneakyThrows
+    private ResultActions perform(RequestBuilder builder) {
+        return mockMvc.perform(asyncDispatch(mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn()));
+    }
+
+    private static HttpServer start() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/users/1", exchange -> {
+                TRACE_PARENT.set(exchange.getRequestHeaders().getFirst("traceparent"));
+                byte[] body = "{\"id\":1,\"name\":\"name\",\"email\":\"name@mail.com\"}"
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
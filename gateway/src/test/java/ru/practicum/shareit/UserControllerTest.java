@@ -9,9 +9,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.UserClient;
 import ru.practicum.shareit.user.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -21,11 +25,13 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,22 +44,22 @@ class UserControllerTest {
     private UserController controller;
     private long userId;
     private UserDto userDto;
-    private ResponseEntity<Object> entity;
+    private ResponseEntity<byte[]> entity;
 
     @BeforeEach
     void initTest() {
         userId = 1;
         mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
         userDto = UserDto.builder().id(1L).name("name").email("user@user.com").build();
-        entity = new ResponseEntity<>(userDto, HttpStatus.OK);
+        entity = json(userDto, HttpStatus.OK);
     }
 
     @Test
     @SneakyThrows
     void getUsersAll() {
-        when(client.getUsersAll()).thenReturn(entity);
+        when(client.getUsersAll()).thenReturn(Mono.just(entity));
 
-        String response = mockMvc.perform(get("/users").contentType("application/json"))
+        String response = perform(get("/users").contentType("application/json"))
                 .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
 
         verify(client).getUsersAll();
@@ -63,9 +69,9 @@ class UserControllerTest {
     @Test
     @SneakyThrows
     void getUser() {
-        when(client.getUser(userId)).thenReturn(entity);
+        when(client.getUser(userId)).thenReturn(Mono.just(entity));
 
-        String response = mockMvc.perform(get("/users/" + userId))
+        String response = perform(get("/users/" + userId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(userId))
                 .andReturn().getResponse().getContentAsString();
@@ -76,7 +82,9 @@ class UserControllerTest {
     @Test
     @SneakyThrows
     void deleteUser() {
-        mockMvc.perform(delete("/users/" + userId).contentType("application/json"))
+        when(client.deleteUser(userId)).thenReturn(Mono.just(ResponseEntity.ok().build()));
+
+        perform(delete("/users/" + userId).contentType("application/json"))
                 .andExpect(status().isOk());
         verify(client, times(1)).deleteUser(userId);
     }
@@ -84,10 +92,10 @@ class UserControllerTest {
     @Test
     @SneakyThrows
     void createUser() {
-        entity = new ResponseEntity<>(userDto, HttpStatus.CREATED);
-        when(client.createUser(userDto)).thenReturn(entity);
+        entity = json(userDto, HttpStatus.CREATED);
+        when(client.createUser(userDto)).thenReturn(Mono.just(entity));
 
-        String response = mockMvc.perform(post("/users").contentType("application/json")
+        String response = perform(post("/users").contentType("application/json")
                         .content(objectMapper.writeValueAsString(userDto)))
                 .andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
 
@@ -98,9 +106,9 @@ class UserControllerTest {
     @Test
     @SneakyThrows
     void updateUser() {
-        when(client.updateUser(userId, userDto)).thenReturn(entity);
+        when(client.updateUser(userId, userDto)).thenReturn(Mono.just(entity));
 
-        String response = mockMvc.perform(patch("/users/" + userId)
+        String response = perform(patch("/users/" + userId)
                         .contentType(APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(userDto)))
                 .andExpect(status().isOk())
@@ -109,4 +117,15 @@ class UserControllerTest {
         verify(client).updateUser(userId, userDto);
         assertEquals(objectMapper.writeValueAsString(userDto), response);
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    private ResponseEntity<byte[]> json(Object body, HttpStatus status) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON)
+                .body(objectMapper.writeValueAsBytes(body));
+    }
+
+    @SneakyThrows
+    private ResultActions perform(RequestBuilder builder) {
+        return mockMvc.perform(asyncDispatch(mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn()));
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a run with the stored baseline. Latency and throughput may drift by a relative tolerance, latency also
+ * by an absolute slack that keeps sub-millisecond jitter from failing the build, and the error rate by an absolute
+ * tolerance. Endpoints that the baseline does not know are not compared. A tail percentile is only compared when
+ * both runs sent enough requests for it to differ from the maximum: 100 for p99 and 1000 for p999. A request left
+ * out of the load pass that the baseline did not leave out is a regression too: it no longer answers as the
+ * collection expects.
+ */
+public final class Baseline {
+    private static final long P99_SAMPLES = 100;
+    private static final long P999_SAMPLES = 1000;
+
+    private Baseline() {
+    }
+
+    public static List<String> regressions(LoadTestResult baseline, LoadTestResult current,
+                                           LoadTestSettings settings) {
+        List<String> regressions = new ArrayList<>();
+        compare("total", baseline.getTotal(), current.getTotal(), settings, regressions);
+        for (String request : current.getExcluded()) {
+            if (!baseline.getExcluded().contains(request)) {
+                regressions.add(String.format("\"%s\" was left out, it no longer answers as the collection expects",
+                        request));
+            }
+        }
+        for (Map.Entry<String, EndpointResult> endpoint : current.getEndpoints().entrySet()) {
+            EndpointResult expected = baseline.getEndpoints().get(endpoint.getKey());
+            if (expected != null) {
+                compare(endpoint.getKey(), expected, endpoint.getValue(), settings, regressions);
+            }
+        }
+        return regressions;
+    }
+
+    private static void compare(String name, EndpointResult baseline, EndpointResult current,
+                                LoadTestSettings settings, List<String> regressions) {
+        long samples = Math.min(baseline.getRequests(), current.getRequests());
+        latency(name, "p50", baseline.getP50(), current.getP50(), settings, regressions);
+        if (samples >= P99_SAMPLES) {
+            latency(name, "p99", baseline.getP99(), current.getP99(), settings, regressions);
+        }
+        if (samples >= P999_SAMPLES) {
+            latency(name, "p999", baseline.getP999(), current.getP999(), settings, regressions);
+        }
+        if (current.getThroughput() < baseline.getThroughput() * (1 - settings.getThroughputTolerance())) {
+            regressions.add(String.format("%s: throughput %.1f/s, baseline %.1f/s", name, current.getThroughput(),
+                    baseline.getThroughput()));
+        }
+        if (current.getErrorRate() > baseline.getErrorRate() + settings.getErrorTolerance()) {
+            regressions.add(String.format("%s: error rate %.2f%%, baseline %.2f%%", name, current.getErrorRate() * 100,
+                    baseline.getErrorRate() * 100));
+        }
+    }
+
+    private static void latency(String name, String percentile, double baseline, double current,
+                                LoadTestSettings settings, List<String> regressions) {
+        if (current > baseline * (1 + settings.getLatencyTolerance())
+                && current - baseline > settings.getLatencySlackMillis()) {
+            regressions.add(String.format("%s: %s %.3f ms, baseline %.3f ms", name, percentile, current, baseline));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Measured figures of one endpoint, or of the whole run. Latencies are in milliseconds.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndpointResult {
+    private long requests;
+    private long errors;
+    private double errorRate;
+    private double throughput;
+    private double p50;
+    private double p99;
+    private double p999;
+    private double max;
+}
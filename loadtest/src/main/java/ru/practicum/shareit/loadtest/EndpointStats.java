@@ -0,0 +1,54 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error count of one endpoint, safe to record from every client thread.
+ */
+public class EndpointStats {
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    public void record(long nanos, boolean error) {
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_MICROS));
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    public EndpointResult toResult(double seconds) {
+        return toResult(histogram, errors.sum(), seconds);
+    }
+
+    public static EndpointResult total(Collection<EndpointStats> stats, double seconds) {
+        Histogram total = new Histogram(HIGHEST_MICROS, 3);
+        long errors = 0;
+        for (EndpointStats endpoint : stats) {
+            total.add(endpoint.histogram);
+            errors += endpoint.errors.sum();
+        }
+        return toResult(total, errors, seconds);
+    }
+
+    private static EndpointResult toResult(Histogram histogram, long errors, double seconds) {
+        long requests = histogram.getTotalCount();
+        return EndpointResult.builder()
+                .requests(requests)
+                .errors(errors)
+                .errorRate(requests == 0 ? 0 : (double) errors / requests)
+                .throughput(requests / seconds)
+                .p50(histogram.getValueAtPercentile(50) / MICROS_PER_MILLI)
+                .p99(histogram.getValueAtPercentile(99) / MICROS_PER_MILLI)
+                .p999(histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI)
+                .max(histogram.getMaxValue() / MICROS_PER_MILLI)
+                .build();
+    }
+}
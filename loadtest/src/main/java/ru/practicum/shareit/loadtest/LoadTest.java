@@ -0,0 +1,68 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays the Postman collection under concurrent load and compares the result with the stored baseline.
+ * See {@link LoadTestSettings} for the arguments.
+ */
+@Slf4j
+public class LoadTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+        List<RequestTemplate> templates = PostmanCollection.load(settings.getCollection());
+        Map<String, String> variables = PostmanCollection.variables(settings.getCollection());
+
+        LoadTestResult result;
+        try (LocalStack stack = settings.getBaseUrl() == null ? LocalStack.start(settings) : null) {
+            String baseUrl = stack == null ? settings.getBaseUrl() : "http://localhost:" + settings.getGatewayPort();
+            Workload workload = new Workload(templates, variables, baseUrl, settings);
+            int failures = workload.replay();
+            log.info("Setup pass sent {} requests, {} of them did not match the collection tests", templates.size(),
+                    failures);
+            log.info("Running {} clients for {} s after {} s of warmup", settings.getClients(),
+                    settings.getDuration().toSeconds(), settings.getWarmup().toSeconds());
+            result = workload.run();
+        }
+
+        report(result);
+        Files.createDirectories(settings.getOutput());
+        MAPPER.writeValue(settings.getOutput().resolve("result.json").toFile(), result);
+
+        if (settings.isRecord() || !Files.exists(settings.getBaseline())) {
+            MAPPER.writeValue(settings.getBaseline().toFile(), result);
+            log.info("Baseline was written to {}", settings.getBaseline());
+            return;
+        }
+        LoadTestResult baseline = MAPPER.readValue(settings.getBaseline().toFile(), LoadTestResult.class);
+        List<String> regressions = Baseline.regressions(baseline, result, settings);
+        if (!regressions.isEmpty()) {
+            regressions.forEach(regression -> log.error("Regression: {}", regression));
+            throw new PerformanceRegression(regressions.size() + " regressions against " + settings.getBaseline());
+        }
+        log.info("No regressions against {}", settings.getBaseline());
+    }
+
+    private static void report(LoadTestResult result) {
+        StringBuilder table = new StringBuilder(String.format("%n%-40s %9s %9s %7s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms"));
+        result.getEndpoints().forEach((endpoint, figures) -> row(table, endpoint, figures));
+        row(table, "total", result.getTotal());
+        log.info("{} clients, {} s{}", result.getClients(), String.format("%.1f", result.getSeconds()), table);
+    }
+
+    private static void row(StringBuilder table, String endpoint, EndpointResult figures) {
+        table.append(String.format("%-40s %9d %9.1f %6.2f%% %9.3f %9.3f %9.3f%n", endpoint, figures.getRequests(),
+                figures.getThroughput(), figures.getErrorRate() * 100, figures.getP50(), figures.getP99(),
+                figures.getP999()));
+    }
+}
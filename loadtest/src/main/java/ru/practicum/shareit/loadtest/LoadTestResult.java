@@ -0,0 +1,26 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a load run as written to {@code result.json}. A baseline is a stored result of an earlier run.
+ * {@code excluded} names the requests of the collection that were left out of the load pass.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadTestResult {
+    private int clients;
+    private double seconds;
+    private EndpointResult total;
+    private Map<String, EndpointResult> endpoints;
+    @Builder.Default
+    private List<String> excluded = List.of();
+}
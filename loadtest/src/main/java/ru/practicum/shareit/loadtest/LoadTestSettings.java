@@ -0,0 +1,108 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parameters of a run, read from {@code --name=value} arguments.
+ */
+@Getter
+@Builder
+public class LoadTestSettings {
+    private static final Pattern DURATION = Pattern.compile("(\\d+)(ms|s|m)");
+
+    private final Path collection;
+    /**
+     * Target of an already running gateway. When absent the server and gateway jars are started locally.
+     */
+    private final String baseUrl;
+    private final Path serverJar;
+    private final Path gatewayJar;
+    private final int serverPort;
+    private final int gatewayPort;
+    private final int clients;
+    private final Duration warmup;
+    private final Duration duration;
+    /**
+     * HTTP methods replayed under load. Writes are replayed once during the setup pass in any case.
+     */
+    private final Set<String> methods;
+    /**
+     * Collection folders replayed under load, all of them when empty.
+     */
+    private final Set<String> folders;
+    private final Path baseline;
+    /**
+     * Stores the result as the new baseline instead of comparing against it.
+     */
+    private final boolean record;
+    private final Path output;
+    private final double latencyTolerance;
+    private final double latencySlackMillis;
+    private final double throughputTolerance;
+    private final double errorTolerance;
+
+    public static LoadTestSettings parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        String baseUrl = values.get("base-url");
+        return LoadTestSettings.builder()
+                .collection(Path.of(values.getOrDefault("collection", "postman/sprint.json")))
+                .baseUrl(baseUrl == null || baseUrl.isBlank() ? null : baseUrl)
+                .serverJar(path(values.get("server-jar")))
+                .gatewayJar(path(values.get("gateway-jar")))
+                .serverPort(Integer.parseInt(values.getOrDefault("server-port", "19090")))
+                .gatewayPort(Integer.parseInt(values.getOrDefault("gateway-port", "18080")))
+                .clients(Integer.parseInt(values.getOrDefault("clients", "16")))
+                .warmup(duration(values.getOrDefault("warmup", "10s")))
+                .duration(duration(values.getOrDefault("duration", "30s")))
+                .methods(set(values.getOrDefault("methods", "GET").toUpperCase()))
+                .folders(set(values.getOrDefault("folders", "")))
+                .baseline(Path.of(values.getOrDefault("baseline", "loadtest/baseline.json")))
+                .record(Boolean.parseBoolean(values.getOrDefault("record", "false")))
+                .output(Path.of(values.getOrDefault("output", "loadtest/target/loadtest")))
+                .latencyTolerance(Double.parseDouble(values.getOrDefault("latency-tolerance", "0.25")))
+                .latencySlackMillis(Double.parseDouble(values.getOrDefault("latency-slack", "2")))
+                .throughputTolerance(Double.parseDouble(values.getOrDefault("throughput-tolerance", "0.25")))
+                .errorTolerance(Double.parseDouble(values.getOrDefault("error-tolerance", "0.01")))
+                .build();
+    }
+
+    static Duration duration(String value) {
+        Matcher matcher = DURATION.matcher(value.strip());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Expected a duration like 500ms, 30s or 2m but got " + value);
+        }
+        long amount = Long.parseLong(matcher.group(1));
+        switch (matcher.group(2)) {
+            case "ms":
+                return Duration.ofMillis(amount);
+            case "s":
+                return Duration.ofSeconds(amount);
+            default:
+                return Duration.ofMinutes(amount);
+        }
+    }
+
+    private static Path path(String value) {
+        return value == null || value.isBlank() ? null : Path.of(value);
+    }
+
+    private static Set<String> set(String value) {
+        return value.isBlank() ? Set.of() : Set.of(value.strip().split("\\s*,\\s*"));
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server and gateway started from their packaged jars. The server runs on the {@code load} profile: every run
+ * starts from an empty in-memory H2 database, and otherwise the settings are those of production, without the
+ * statistics, the failing statement detector and the full trace sampling of the {@code test} profile. Their logs
+ * go to the output directory.
+ */
+@Slf4j
+public class LocalStack implements AutoCloseable {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final List<Process> processes = new ArrayList<>();
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    public static LocalStack start(LoadTestSettings settings) throws IOException, InterruptedException {
+        if (settings.getServerJar() == null || settings.getGatewayJar() == null) {
+            throw new IllegalArgumentException("Either --base-url or both --server-jar and --gateway-jar are required");
+        }
+        Files.createDirectories(settings.getOutput());
+        LocalStack stack = new LocalStack();
+        try {
+            stack.launch("server", settings.getServerJar(), settings.getServerPort(), settings.getOutput(),
+                    "--spring.profiles.active=load");
+            stack.launch("gateway", settings.getGatewayJar(), settings.getGatewayPort(), settings.getOutput(),
+                    "--shareit-server.url=http://localhost:" + settings.getServerPort(),
+                    "--logging.level.org.springframework.web.reactive.function.client.ExchangeFunctions=INFO");
+        } catch (IOException | InterruptedException | RuntimeException exception) {
+            stack.close();
+            throw exception;
+        }
+        return stack;
+    }
+
+    private void launch(String name, Path jar, int port, Path output, String... args)
+            throws IOException, InterruptedException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = new ArrayList<>(List.of(java, "-jar", jar.toString(), "--server.port=" + port));
+        command.addAll(List.of(args));
+        Path logFile = output.resolve(name + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        processes.add(process);
+        log.info("Starting {} on port {}, log in {}", name, port, logFile);
+        awaitHealthy(name, process, URI.create("http://localhost:" + port + "/actuator/health"));
+    }
+
+    private void awaitHealthy(String name, Process process, URI health) throws InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with code " + process.exitValue());
+            }
+            try {
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(health).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException exception) {
+                log.debug("{} is not up yet: {}", name, exception.getMessage());
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " did not become healthy in " + STARTUP_TIMEOUT);
+    }
+
+    @Override
+    public void close() {
+        for (int i = processes.size() - 1; i >= 0; i--) {
+            Process process = processes.get(i);
+            process.destroy();
+            try {
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException exception) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.loadtest;
+
+public class PerformanceRegression extends RuntimeException {
+    public PerformanceRegression(String message) {
+        super(message);
+    }
+}
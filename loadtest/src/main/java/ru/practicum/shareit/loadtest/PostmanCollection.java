@@ -0,0 +1,113 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Reads a Postman v2.1 collection into request templates in the order Postman runs them.
+ */
+public final class PostmanCollection {
+    private static final Pattern ONE_OF = Pattern.compile("oneOf\\(\\[([\\d,\\s]+)]\\)");
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final Pattern STATUS = Pattern.compile("to\\.have\\.status\\((\\d+)\\)");
+
+    private PostmanCollection() {
+    }
+
+    public static Map<String, String> variables(Path collection) throws IOException {
+        Map<String, String> variables = new LinkedHashMap<>();
+        new ObjectMapper().readTree(collection.toFile()).path("variable")
+                .forEach(variable -> variables.put(variable.path("key").asText(), variable.path("value").asText()));
+        return variables;
+    }
+
+    public static List<RequestTemplate> load(Path collection) throws IOException {
+        List<RequestTemplate> templates = new ArrayList<>();
+        collect(new ObjectMapper().readTree(collection.toFile()).path("item"), "", templates);
+        return templates;
+    }
+
+    private static void collect(JsonNode items, String folder, List<RequestTemplate> templates) {
+        for (JsonNode item : items) {
+            if (item.has("item")) {
+                collect(item.path("item"), item.path("name").asText(), templates);
+            } else {
+                templates.add(template(folder, item));
+            }
+        }
+    }
+
+    private static RequestTemplate template(String folder, JsonNode item) {
+        JsonNode request = item.path("request");
+        JsonNode url = request.path("url");
+        String method = request.path("method").asText();
+
+        Map<String, String> pathVariables = new LinkedHashMap<>();
+        url.path("variable").forEach(variable ->
+                pathVariables.put(variable.path("key").asText(), variable.path("value").asText()));
+        Map<String, String> headers = new LinkedHashMap<>();
+        request.path("header").forEach(header -> {
+            if (!header.path("disabled").asBoolean()) {
+                headers.put(header.path("key").asText(), header.path("value").asText());
+            }
+        });
+        String body = request.path("body").path("raw").asText(null);
+        boolean json = "json".equals(request.path("body").path("options").path("raw").path("language").asText());
+        if (json && headers.keySet().stream().noneMatch(CONTENT_TYPE::equalsIgnoreCase)) {
+            headers.put(CONTENT_TYPE, "application/json");
+        }
+
+        return new RequestTemplate(folder, item.path("name").asText(), method, endpoint(method, url),
+                url.path("raw").asText(), pathVariables, headers, body == null || body.isBlank() ? null : body,
+                new PreRequestScript(script(item, "prerequest")), expectedStatuses(script(item, "test")));
+    }
+
+    private static String endpoint(String method, JsonNode url) {
+        List<String> path = new ArrayList<>();
+        url.path("path").forEach(segment -> path.add(segment.asText()));
+        List<String> query = new ArrayList<>();
+        url.path("query").forEach(parameter -> query.add(parameter.path("key").asText()));
+        return method + " /" + String.join("/", path) + (query.isEmpty() ? "" : "?" + String.join("&", query));
+    }
+
+    private static List<String> script(JsonNode item, String listen) {
+        List<String> lines = new ArrayList<>();
+        for (JsonNode event : item.path("event")) {
+            if (listen.equals(event.path("listen").asText())) {
+                event.path("script").path("exec").forEach(line -> lines.add(line.asText().strip()));
+            }
+        }
+        return lines;
+    }
+
+    private static Set<Integer> expectedStatuses(List<String> lines) {
+        for (String line : lines) {
+            if (!line.contains("pm.response")) {
+                continue;
+            }
+            Matcher matcher = ONE_OF.matcher(line);
+            if (matcher.find()) {
+                return Pattern.compile(",").splitAsStream(matcher.group(1))
+                        .map(String::strip)
+                        .map(Integer::valueOf)
+                        .collect(Collectors.toUnmodifiableSet());
+            }
+            matcher = STATUS.matcher(line);
+            if (matcher.find()) {
+                return Set.of(Integer.valueOf(matcher.group(1)));
+            }
+        }
+        return Set.of();
+    }
+}
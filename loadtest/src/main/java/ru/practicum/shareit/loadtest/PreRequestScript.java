@@ -0,0 +1,84 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Interprets the subset of the Postman pre-request scripts the collection relies on: moment dates shifted from now,
+ * {@code pm.environment.set} of their formatted value and {@code setTimeout} pauses. Other lines are ignored.
+ */
+public class PreRequestScript {
+    private static final Pattern MOMENT = Pattern.compile("var (\\w+) = moment\\(\\)((?:\\.add\\(-?\\d+, '\\w'\\))*)");
+    private static final Pattern ADD = Pattern.compile("\\.add\\((-?\\d+), '(\\w)'\\)");
+    private static final Pattern SET =
+            Pattern.compile("pm\\.environment\\.set\\('(\\w+)', (\\w+)\\.format\\('([^']+)'\\)\\)");
+    private static final Pattern TIMEOUT = Pattern.compile("setTimeout\\(function\\(\\)\\{}, (\\d+)\\)");
+
+    private final List<String> lines;
+
+    public PreRequestScript(List<String> lines) {
+        this.lines = lines;
+    }
+
+    /**
+     * Runs the script against the environment and returns the pause in milliseconds it asks for.
+     */
+    public long run(Map<String, String> environment) {
+        Map<String, LocalDateTime> moments = new HashMap<>();
+        long pause = 0;
+        for (String line : lines) {
+            Matcher matcher = MOMENT.matcher(line);
+            if (matcher.find()) {
+                moments.put(matcher.group(1), shift(LocalDateTime.now(), matcher.group(2)));
+                continue;
+            }
+            matcher = SET.matcher(line);
+            if (matcher.find() && moments.containsKey(matcher.group(2))) {
+                environment.put(matcher.group(1), moments.get(matcher.group(2)).format(formatter(matcher.group(3))));
+                continue;
+            }
+            matcher = TIMEOUT.matcher(line);
+            if (matcher.find()) {
+                pause += Long.parseLong(matcher.group(1));
+            }
+        }
+        return pause;
+    }
+
+    private static LocalDateTime shift(LocalDateTime moment, String adds) {
+        Matcher matcher = ADD.matcher(adds);
+        while (matcher.find()) {
+            moment = moment.plus(Long.parseLong(matcher.group(1)), unit(matcher.group(2)));
+        }
+        return moment;
+    }
+
+    private static ChronoUnit unit(String unit) {
+        switch (unit) {
+            case "d":
+                return ChronoUnit.DAYS;
+            case "h":
+                return ChronoUnit.HOURS;
+            case "m":
+                return ChronoUnit.MINUTES;
+            case "s":
+                return ChronoUnit.SECONDS;
+            default:
+                throw new IllegalArgumentException("Unsupported moment unit " + unit);
+        }
+    }
+
+    private static DateTimeFormatter formatter(String momentPattern) {
+        return DateTimeFormatter.ofPattern(momentPattern
+                .replace(".sss", ".SSS")
+                .replace("YYYY", "yyyy")
+                .replace("DD", "dd")
+                .replace("T", "'T'"));
+    }
+}
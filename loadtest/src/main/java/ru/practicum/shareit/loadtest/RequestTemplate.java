@@ -0,0 +1,40 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One request of the Postman collection with its variables still unresolved.
+ */
+@Getter
+@AllArgsConstructor
+public class RequestTemplate {
+    private final String folder;
+    private final String name;
+    private final String method;
+    /**
+     * Route used to group the statistics, e.g. {@code GET /bookings/owner?state}.
+     */
+    private final String endpoint;
+    private final String url;
+    private final Map<String, String> pathVariables;
+    private final Map<String, String> headers;
+    private final String body;
+    private final PreRequestScript script;
+    /**
+     * Status codes accepted by the collection tests, empty when any 2xx is accepted.
+     */
+    private final Set<Integer> expectedStatuses;
+
+    public boolean isExpected(int status) {
+        return expectedStatuses.isEmpty() ? status / 100 == 2 : expectedStatuses.contains(status);
+    }
+
+    public boolean isWrite() {
+        return !List.of("GET", "HEAD", "OPTIONS").contains(method);
+    }
+}
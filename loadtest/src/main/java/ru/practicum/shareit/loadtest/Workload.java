@@ -0,0 +1,214 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Replays the collection against a gateway. The setup pass sends every request once in collection order, like the
+ * Postman runner, so the literal ids of the collection point to existing users, items and bookings. The load pass
+ * then lets concurrent clients cycle through the selected requests, starting at offsets spread evenly over the
+ * list, so a short run that does not complete a cycle still samples every part of the collection. A request
+ * whose answer the collection tests reject once the setup pass is over, such as a list of waiting bookings that
+ * the collection approves later, is left out of the load pass and listed in the result instead.
+ */
+@Slf4j
+public class Workload {
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{(\\w+)}}");
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "host");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final List<RequestTemplate> templates;
+    private final Map<String, String> environment;
+    private final LoadTestSettings settings;
+    private final HttpClient client;
+
+    public Workload(List<RequestTemplate> templates, Map<String, String> variables, String baseUrl,
+                    LoadTestSettings settings) {
+        this.templates = templates;
+        this.environment = new HashMap<>(variables);
+        this.environment.put("baseUrl", baseUrl);
+        this.settings = settings;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Runs the setup pass and returns the number of responses the collection tests would have rejected.
+     */
+    public int replay() throws InterruptedException {
+        int failures = 0;
+        for (RequestTemplate template : templates) {
+            long pause = template.getScript().run(environment);
+            if (pause > 0) {
+                Thread.sleep(pause);
+            }
+            int status = send(request(template));
+            if (!template.isExpected(status)) {
+                failures++;
+                log.warn("Setup request \"{}\" answered {}, expected {}", template.getName(), status,
+                        template.getExpectedStatuses().isEmpty() ? "2xx" : template.getExpectedStatuses());
+            }
+        }
+        return failures;
+    }
+
+    public LoadTestResult run() throws InterruptedException {
+        List<RequestTemplate> selected = templates.stream()
+                .filter(template -> settings.getMethods().contains(template.getMethod()))
+                .filter(template -> settings.getFolders().isEmpty()
+                        || settings.getFolders().contains(template.getFolder()))
+                .collect(Collectors.toList());
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("No requests of the collection match the selected methods and folders");
+        }
+        List<RequestTemplate> replayed = new ArrayList<>();
+        List<HttpRequest> requests = new ArrayList<>();
+        List<String> excluded = new ArrayList<>();
+        for (RequestTemplate template : selected) {
+            template.getScript().run(environment);
+            HttpRequest request = request(template);
+            int status = send(request);
+            if (template.isExpected(status)) {
+                replayed.add(template);
+                requests.add(request);
+            } else {
+                excluded.add(template.getName());
+                log.warn("Request \"{}\" answers {} after the setup pass, expected {}, it is left out of the load",
+                        template.getName(), status, template.getExpectedStatuses().isEmpty() ? "2xx"
+                                : template.getExpectedStatuses());
+            }
+        }
+        if (replayed.isEmpty()) {
+            throw new IllegalStateException("Every selected request was left out of the load");
+        }
+
+        Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+        Set<String> unexpected = ConcurrentHashMap.newKeySet();
+        long start = System.nanoTime();
+        long measureFrom = start + settings.getWarmup().toNanos();
+        long end = measureFrom + settings.getDuration().toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(settings.getClients());
+        try {
+            List<Future<?>> clients = new ArrayList<>();
+            for (int i = 0; i < settings.getClients(); i++) {
+                int offset = i * replayed.size() / settings.getClients();
+                clients.add(executor.submit(() -> {
+                    for (int n = offset; ; n++) {
+                        int index = n % replayed.size();
+                        long sent = System.nanoTime();
+                        if (sent >= end) {
+                            return;
+                        }
+                        int status = send(requests.get(index));
+                        long received = System.nanoTime();
+                        if (sent >= measureFrom) {
+                            RequestTemplate template = replayed.get(index);
+                            boolean error = !template.isExpected(status);
+                            stats.computeIfAbsent(template.getEndpoint(), endpoint -> new EndpointStats())
+                                    .record(received - sent, error);
+                            if (error && unexpected.add(template.getName() + " " + status)) {
+                                log.warn("Load request \"{}\" answered {}, expected {}", template.getName(), status,
+                                        template.getExpectedStatuses().isEmpty() ? "2xx"
+                                                : template.getExpectedStatuses());
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : clients) {
+                future.get();
+            }
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException("Load client failed", exception.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - measureFrom) / 1e9;
+        Map<String, EndpointResult> endpoints = new TreeMap<>();
+        stats.forEach((endpoint, endpointStats) -> endpoints.put(endpoint, endpointStats.toResult(seconds)));
+        return LoadTestResult.builder()
+                .clients(settings.getClients())
+                .seconds(seconds)
+                .total(EndpointStats.total(stats.values(), seconds))
+                .endpoints(endpoints)
+                .excluded(excluded)
+                .build();
+    }
+
+    /**
+     * Sends the request and returns its status, or 0 when no response came back.
+     */
+    private int send(HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException exception) {
+            return 0;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    HttpRequest request(RequestTemplate template) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(template)).timeout(REQUEST_TIMEOUT);
+        template.getHeaders().forEach((name, value) -> {
+            if (!RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                builder.header(name, resolve(value));
+            }
+        });
+        HttpRequest.BodyPublisher body = template.getBody() == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(resolve(template.getBody()));
+        return builder.method(template.getMethod(), body).build();
+    }
+
+    URI uri(RequestTemplate template) {
+        String url = resolve(template.getUrl());
+        for (Map.Entry<String, String> variable : template.getPathVariables().entrySet()) {
+            url = url.replace("/:" + variable.getKey(), "/" + resolve(variable.getValue()));
+        }
+        int queryStart = url.indexOf('?');
+        String query = queryStart < 0 ? null : url.substring(queryStart + 1);
+        URI base = URI.create(queryStart < 0 ? url : url.substring(0, queryStart));
+        try {
+            return new URI(base.getScheme(), base.getRawAuthority(), base.getPath(), query, null);
+        } catch (URISyntaxException exception) {
+            throw new IllegalArgumentException("Invalid url " + url, exception);
+        }
+    }
+
+    private String resolve(String value) {
+        Matcher matcher = VARIABLE.matcher(value);
+        StringBuilder resolved = new StringBuilder();
+        while (matcher.find()) {
+            matcher.appendReplacement(resolved,
+                    Matcher.quoteReplacement(environment.getOrDefault(matcher.group(1), matcher.group())));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+}
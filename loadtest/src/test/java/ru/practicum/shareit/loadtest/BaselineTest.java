@@ -0,0 +1,94 @@
+package ru.practicum.shareit.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BaselineTest {
+    private final LoadTestSettings settings = LoadTestSettings.parse("--latency-tolerance=0.25", "--latency-slack=1",
+            "--throughput-tolerance=0.25", "--error-tolerance=0.01");
+
+    @Test
+    void testWithinTolerance() {
+        LoadTestResult baseline = result(figures(10, 40, 80, 100, 0));
+        LoadTestResult current = result(figures(12, 49, 99, 80, 0.005));
+
+        assertTrue(Baseline.regressions(baseline, current, settings).isEmpty());
+    }
+
+    @Test
+    void testSubMillisecondJitterIsIgnored() {
+        LoadTestResult baseline = result(figures(0.2, 0.5, 1, 100, 0));
+        LoadTestResult current = result(figures(0.6, 1.4, 1.9, 100, 0));
+
+        assertTrue(Baseline.regressions(baseline, current, settings).isEmpty());
+    }
+
+    @Test
+    void testRegressions() {
+        LoadTestResult baseline = result(figures(10, 40, 80, 100, 0));
+        LoadTestResult current = result(figures(10, 60, 80, 70, 0.05));
+
+        List<String> regressions = Baseline.regressions(baseline, current, settings);
+
+        assertEquals(6, regressions.size());
+        assertEquals("total: p99 60.000 ms, baseline 40.000 ms", regressions.get(0));
+        assertEquals("GET /users: error rate 5.00%, baseline 0.00%", regressions.get(5));
+    }
+
+    @Test
+    void testTailOfFewRequestsIsNotCompared() {
+        LoadTestResult baseline = result(figures(10, 40, 80, 100, 0));
+        LoadTestResult current = result(figures(10, 40, 80, 100, 0));
+        EndpointResult few = figures(10, 400, 800, 100, 0);
+        few.setRequests(99);
+        EndpointResult some = figures(10, 400, 800, 100, 0);
+        some.setRequests(999);
+        current.setTotal(few);
+        current.setEndpoints(Map.of("GET /users", some));
+
+        assertEquals(List.of("GET /users: p99 400.000 ms, baseline 40.000 ms"),
+                Baseline.regressions(baseline, current, settings));
+    }
+
+    @Test
+    void testUnknownEndpointIsNotCompared() {
+        LoadTestResult baseline = result(figures(10, 40, 80, 100, 0));
+        LoadTestResult current = result(figures(10, 40, 80, 100, 0));
+        current.setEndpoints(Map.of("GET /items", figures(100, 400, 800, 1, 1)));
+
+        assertTrue(Baseline.regressions(baseline, current, settings).isEmpty());
+    }
+
+    @Test
+    void testNewlyExcludedRequestIsARegression() {
+        LoadTestResult baseline = result(figures(10, 40, 80, 100, 0));
+        baseline.setExcluded(List.of("Booking get all by WAITING state"));
+        LoadTestResult current = result(figures(10, 40, 80, 100, 0));
+        current.setExcluded(List.of("Booking get all by WAITING state", "User get by id"));
+
+        assertEquals(List.of("\"User get by id\" was left out, it no longer answers as the collection expects"),
+                Baseline.regressions(baseline, current, settings));
+    }
+
+    @Test
+    void testDuration() {
+        assertEquals(500, LoadTestSettings.duration("500ms").toMillis());
+        assertEquals(30, LoadTestSettings.duration("30s").toSeconds());
+        assertEquals(2, LoadTestSettings.duration("2m").toMinutes());
+    }
+
+    private LoadTestResult result(EndpointResult figures) {
+        return LoadTestResult.builder().clients(16).seconds(30).total(figures)
+                .endpoints(Map.of("GET /users", figures)).build();
+    }
+
+    private EndpointResult figures(double p50, double p99, double p999, double throughput, double errorRate) {
+        return EndpointResult.builder().requests(1000).p50(p50).p99(p99).p999(p999).throughput(throughput).errorRate(errorRate)
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.loadtest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostmanCollectionTest {
+    private static final Path COLLECTION = Path.of("../postman/sprint.json");
+
+    private List<RequestTemplate> templates;
+
+    @BeforeEach
+    void initTest() throws IOException {
+        templates = PostmanCollection.load(COLLECTION);
+    }
+
+    @Test
+    void testLoadInRunnerOrder() throws IOException {
+        assertEquals(139, templates.size());
+        assertEquals("users", templates.get(0).getFolder());
+        assertEquals("POST /users", templates.get(0).getEndpoint());
+        assertEquals("http://localhost:8080", PostmanCollection.variables(COLLECTION).get("baseUrl"));
+    }
+
+    @Test
+    void testExpectedStatuses() {
+        RequestTemplate wrongState = find("Booking get all for user 1 by wrong state");
+        assertEquals("GET /bookings?state", wrongState.getEndpoint());
+        assertEquals(Set.of(400, 500), wrongState.getExpectedStatuses());
+        assertTrue(wrongState.isExpected(400));
+        assertFalse(wrongState.isExpected(200));
+
+        RequestTemplate allState = find("Booking get all for user 1 by ALL state");
+        assertTrue(allState.getExpectedStatuses().isEmpty());
+        assertTrue(allState.isExpected(200));
+        assertFalse(allState.isExpected(404));
+    }
+
+    @Test
+    void testJsonBodyGetsContentType() {
+        RequestTemplate request = find("Add item request 1");
+        assertEquals("application/json", request.getHeaders().get("Content-Type"));
+        assertTrue(request.isWrite());
+    }
+
+    @Test
+    void testPreRequestScriptSetsDates() {
+        Map<String, String> environment = new HashMap<>();
+        long pause = new PreRequestScript(List.of(
+                "var start = moment().add(1, 'd');",
+                "var end = moment().add(1, 'd').add(1, 'h');",
+                "pm.environment.set('start', start.format('YYYY-MM-DDTHH:mm:ss'));",
+                "pm.environment.set('end', end.format('YYYY-MM-DDTHH:mm:ss'));",
+                "var time = setTimeout(function(){}, 3000);")).run(environment);
+
+        assertEquals(3000, pause);
+        LocalDateTime start = LocalDateTime.parse(environment.get("start"));
+        assertEquals(LocalDate.now().plusDays(1), start.toLocalDate());
+        assertEquals(start.plusHours(1), LocalDateTime.parse(environment.get("end")));
+    }
+
+    @Test
+    void testUriResolvesVariables() {
+        LoadTestSettings settings = LoadTestSettings.parse();
+        Workload workload = new Workload(templates, Map.of(), "http://localhost:18080", settings);
+
+        assertEquals(URI.create("http://localhost:18080/users/1"), workload.uri(find("User 1 update")));
+        URI search = workload.uri(find("Item search аккумуляторная"));
+        assertEquals("/items/search", search.getPath());
+        assertEquals("text=аккУМУляторная", search.getQuery());
+    }
+
+    private RequestTemplate find(String name) {
+        return templates.stream()
+                .filter(template -> template.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
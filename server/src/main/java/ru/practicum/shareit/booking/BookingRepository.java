@@ -2,40 +2,110 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.dto.TimelineEntry;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.enums.Status;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerIdOrderByStartDesc(Long userId, Pageable page);
+    String VIEW = "select new ru.practicum.shareit.booking.dto.BookingView(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.owner, i.requestId, u.id, u.name, u.email) " +
+            "from Booking b join b.item i join b.booker u ";
+    String BY_BOOKER = VIEW + "where u.id = ?1 ";
+    String BY_OWNER = VIEW + "where i.owner = ?1 ";
+    /**
+     * The list queries are written out, so their names only tell the filter. The current bookings of a booker
+     * are ordered by the end date, every other list by the start date, with the id breaking the ties.
+     */
+    String BY_START = "order by b.start desc, b.id desc";
+    String BY_END = "order by b.end desc, b.id desc";
+    String BEFORE_CURSOR = "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " + BY_START;
+    String BEFORE_END_CURSOR = "and (b.end < ?2 or (b.end = ?2 and b.id < ?3)) " + BY_END;
 
-    List<Booking> findByBookerIdAndStatusIsOrderByStartDesc(Long userId, Status status, Pageable page);
+    @Query(BY_BOOKER + BY_START)
+    List<BookingView> findByBookerId(Long userId, Pageable page);
 
-    List<Booking> findByBookerIdAndStartAfterOrderByStartDesc(Long userId, LocalDateTime date, Pageable page);
+    @Query(BY_BOOKER + "and b.status = ?2 " + BY_START)
+    List<BookingView> findByBookerIdAndStatus(Long userId, Status status, Pageable page);
 
-    List<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(Long userId, LocalDateTime date, Pageable page);
+    @Query(BY_BOOKER + "and b.start > ?2 " + BY_START)
+    List<BookingView> findFutureByBookerId(Long userId, LocalDateTime date, Pageable page);
 
-    List<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(Long userId, LocalDateTime date);
+    @Query(BY_BOOKER + "and b.end < ?2 " + BY_START)
+    List<BookingView> findPastByBookerId(Long userId, LocalDateTime date, Pageable page);
 
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByEndDesc(Long userId, LocalDateTime dateStart,
-                                                                        LocalDateTime dateEnd, Pageable page);
+    boolean existsByBookerIdAndEndBefore(Long userId, LocalDateTime date);
 
-    List<Booking> findByItemOwnerOrderByStartDesc(Long userId, Pageable page);
+    @Query(BY_BOOKER + "and b.start < ?2 and b.end > ?2 " + BY_END)
+    List<BookingView> findCurrentByBookerId(Long userId, LocalDateTime date, Pageable page);
 
-    List<Booking> findByItemOwnerAndStatusIsOrderByStartDesc(Long userId, Status status, Pageable page);
+    @Query(BY_OWNER + BY_START)
+    List<BookingView> findByItemOwner(Long userId, Pageable page);
 
-    List<Booking> findByItemOwnerAndStartAfterOrderByStartDesc(Long userId, LocalDateTime date, Pageable page);
+    @Query(BY_OWNER + "and b.status = ?2 " + BY_START)
+    List<BookingView> findByItemOwnerAndStatus(Long userId, Status status, Pageable page);
 
-    List<Booking> findByItemOwnerAndEndBeforeOrderByStartDesc(Long userId, LocalDateTime date, Pageable page);
+    @Query(BY_OWNER + "and b.start > ?2 " + BY_START)
+    List<BookingView> findFutureByItemOwner(Long userId, LocalDateTime date, Pageable page);
 
-    List<Booking> findByItemOwnerAndStartBeforeAndEndAfterOrderByStartDesc(Long userId, LocalDateTime dateStart,
-                                                                           LocalDateTime dateEnd, Pageable page);
+    @Query(BY_OWNER + "and b.end < ?2 " + BY_START)
+    List<BookingView> findPastByItemOwner(Long userId, LocalDateTime date, Pageable page);
 
-    List<Booking> findFirstByItemIdAndStartBeforeAndStatusIsNotOrderByEndDesc(Long itemId, LocalDateTime date, Status status);
+    @Query(BY_OWNER + "and b.start < ?2 and b.end > ?2 " + BY_START)
+    List<BookingView> findCurrentByItemOwner(Long userId, LocalDateTime date, Pageable page);
 
-    List<Booking> findFirstByItemIdAndStartAfterAndStatusIsNotOrderByEndAsc(Long itemId, LocalDateTime date, Status status);
+    @Query(BY_BOOKER + BEFORE_CURSOR)
+    List<BookingView> findByBookerIdBefore(Long userId, LocalDateTime start, Long id, Pageable page);
+
+    @Query(BY_BOOKER + "and b.status = ?4 " + BEFORE_CURSOR)
+    List<BookingView> findByBookerIdAndStatusBefore(Long userId, LocalDateTime start, Long id, Status status,
+                                                    Pageable page);
+
+    @Query(BY_BOOKER + "and b.start > ?4 " + BEFORE_CURSOR)
+    List<BookingView> findFutureByBookerIdBefore(Long userId, LocalDateTime start, Long id, LocalDateTime date,
+                                                 Pageable page);
+
+    @Query(BY_BOOKER + "and b.end < ?4 " + BEFORE_CURSOR)
+    List<BookingView> findPastByBookerIdBefore(Long userId, LocalDateTime start, Long id, LocalDateTime date,
+                                               Pageable page);
+
+    @Query(BY_BOOKER + "and b.start < ?4 and b.end > ?4 " + BEFORE_END_CURSOR)
+    List<BookingView> findCurrentByBookerIdBefore(Long userId, LocalDateTime end, Long id, LocalDateTime date,
+                                                  Pageable page);
+
+    @Query(BY_OWNER + BEFORE_CURSOR)
+    List<BookingView> findByItemOwnerBefore(Long userId, LocalDateTime start, Long id, Pageable page);
+
+    @Query(BY_OWNER + "and b.status = ?4 " + BEFORE_CURSOR)
+    List<BookingView> findByItemOwnerAndStatusBefore(Long userId, LocalDateTime start, Long id, Status status,
+                                                     Pageable page);
+
+    @Query(BY_OWNER + "and b.start > ?4 " + BEFORE_CURSOR)
+    List<BookingView> findFutureByItemOwnerBefore(Long userId, LocalDateTime start, Long id, LocalDateTime date,
+                                                  Pageable page);
+
+    @Query(BY_OWNER + "and b.end < ?4 " + BEFORE_CURSOR)
+    List<BookingView> findPastByItemOwnerBefore(Long userId, LocalDateTime start, Long id, LocalDateTime date,
+                                                Pageable page);
+
+    @Query(BY_OWNER + "and b.start < ?4 and b.end > ?4 " + BEFORE_CURSOR)
+    List<BookingView> findCurrentByItemOwnerBefore(Long userId, LocalDateTime start, Long id, LocalDateTime date,
+                                                   Pageable page);
+
+    @Query("select new ru.practicum.shareit.booking.dto.TimelineEntry(b.id, b.item.id, b.booker.id, b.start, " +
+            "b.end) from Booking b where b.status <> ?1 and b.id > ?2 order by b.id")
+    List<TimelineEntry> findTimelineAfter(Status excluded, long afterId, Pageable page);
+
+    @Query("select b from Booking b join fetch b.item join fetch b.booker where b.id in ?1")
+    List<Booking> findAllWithItemAndBookerByIdIn(Collection<Long> ids);
+
+    @Query("select b from Booking b where b.item.id = ?1 and b.status in ?4 and b.start < ?3 and b.end > ?2")
+    List<Booking> findOverlapping(Long itemId, LocalDateTime start, LocalDateTime end, Collection<Status> statuses);
 }
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking.component;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a booking list ordered by a date and id, both descending. The next page holds the bookings
+ * strictly before this position, so the database seeks to it through the index instead of skipping rows.
+ * Both dates of the last booking are kept, since the current bookings of a booker are ordered by the end date
+ * and every other list by the start date. Clients only see the opaque token built by {@link #encode()}.
+ */
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class BookingCursor {
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    public static final BookingCursor FIRST = new BookingCursor(MAX_DATE, MAX_DATE, Long.MAX_VALUE);
+
+    private static final String SEPARATOR = ",";
+
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final long id;
+
+    public boolean isFirst() {
+        return equals(FIRST);
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((start + SEPARATOR + end + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split(SEPARATOR);
+            if (parts.length != 3) {
+                throw new ValidationException("Invalid cursor");
+            }
+            return new BookingCursor(LocalDateTime.parse(parts[0]), LocalDateTime.parse(parts[1]),
+                    Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException exception) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking.component;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.enums.Role;
+import ru.practicum.shareit.enums.State;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class BookingDispatcher {
+    private final Map<Role, Map<State, Chain>> strategies = new EnumMap<>(Role.class);
+
+    public BookingDispatcher(List<Chain> chains) {
+        for (Role role : Role.values()) {
+            strategies.put(role, new EnumMap<>(State.class));
+        }
+        for (Chain chain : chains) {
+            Chain existing = strategies.get(chain.getRole()).put(chain.getState(), chain);
+            if (existing != null) {
+                throw new IllegalStateException("Duplicate booking strategy for " + chain.getRole() + " and "
+                        + chain.getState());
+            }
+        }
+    }
+
+    public List<BookingDto> findBookings(Role role, long userId, State state, Pageable page) {
+        Chain chain = strategies.get(role).get(state);
+        if (chain == null) {
+            return new ArrayList<>();
+        }
+        return chain.findBookings(userId, page);
+    }
+
+    public List<BookingDto> findBookings(Role role, long userId, State state, BookingCursor cursor, int size) {
+        Chain chain = strategies.get(role).get(state);
+        if (chain == null) {
+            return new ArrayList<>();
+        }
+        return chain.findBookings(userId, cursor, size);
+    }
+}
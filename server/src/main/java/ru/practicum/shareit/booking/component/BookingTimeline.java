@@ -0,0 +1,235 @@
+package ru.practicum.shareit.booking.component;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.TimelineEntry;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.Status;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Per-item timeline of the bookings that are not rejected, ordered by start. Last and next bookings of an item are
+ * found with one tree lookup instead of a query. The last booking is the one that ended last among those that
+ * started before now. Since the overlap check, bookings of an item that are not rejected do not overlap, so that is
+ * also the booking that started last. The next booking is the one that ends first among those that start after now,
+ * which without overlaps is the booking that starts first. Older data may still hold overlapping bookings. Such
+ * items are marked when their bookings are added, and their last and next bookings are found by walking the
+ * bookings on that side of now.
+ * <p>
+ * The timeline is loaded once all singletons exist, before the web server starts accepting requests. It follows the
+ * bookings saved through {@link #update(Booking)} and the bookings removed through the entity manager, but not bulk
+ * deletes. It only sees the changes made by this server instance: with several instances behind one database a
+ * booking created, decided or removed through another instance is not reflected here until a restart.
+ */
+@Component
+@Slf4j
+public class BookingTimeline implements SmartInitializingSingleton {
+    private static final int BATCH_SIZE = 1000;
+    private static final Comparator<TimelineEntry> BY_START = Comparator.comparing(TimelineEntry::getStart)
+            .thenComparing(TimelineEntry::getId);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, NavigableSet<TimelineEntry>> timelines = new HashMap<>();
+    private final Map<Long, TimelineEntry> entries = new HashMap<>();
+    private final Set<Long> overlapping = new HashSet<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Autowired
+    public BookingTimeline(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            timelines.clear();
+            entries.clear();
+            overlapping.clear();
+            long lastId = 0;
+            List<TimelineEntry> batch;
+            do {
+                batch = bookingRepository.findTimelineAfter(Status.REJECTED, lastId, PageRequest.of(0, BATCH_SIZE));
+                batch.forEach(this::add);
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == BATCH_SIZE);
+            log.info("Booking timeline was built for {} bookings of {} items", entries.size(), timelines.size());
+            if (!overlapping.isEmpty()) {
+                log.warn("{} items have overlapping bookings that are not rejected", overlapping.size());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the booking or, once it is rejected, removes it. Inside a transaction the change is applied only after
+     * the commit, so a rolled back booking never shows up as the last or next one.
+     */
+    public void update(Booking booking) {
+        TimelineEntry entry = new TimelineEntry(booking.getId(), booking.getItem().getId(),
+                booking.getBooker().getId(), booking.getStart(), booking.getEnd());
+        boolean rejected = booking.getStatus() == Status.REJECTED;
+        afterCommit(() -> {
+            remove(entry.getId());
+            if (!rejected) {
+                add(entry);
+            }
+        });
+    }
+
+    /**
+     * Removes the deleted booking, after the commit like {@link #update(Booking)}.
+     */
+    public void evict(long bookingId) {
+        afterCommit(() -> remove(bookingId));
+    }
+
+    /**
+     * Returns the booking of the item that ended last among those that started before {@code now}.
+     */
+    public Optional<TimelineEntry> findLast(long itemId, LocalDateTime now) {
+        TimelineEntry probe = probe(itemId, now, Long.MIN_VALUE);
+        return find(itemId, timeline -> overlapping.contains(itemId) ? endedLast(timeline.headSet(probe, false))
+                : timeline.lower(probe));
+    }
+
+    /**
+     * Returns the booking of the item that ends first among those that start after {@code now}.
+     */
+    public Optional<TimelineEntry> findNext(long itemId, LocalDateTime now) {
+        TimelineEntry probe = probe(itemId, now, Long.MAX_VALUE);
+        return find(itemId, timeline -> overlapping.contains(itemId) ? endsFirst(timeline.tailSet(probe, false))
+                : timeline.higher(probe));
+    }
+
+    private Optional<TimelineEntry> find(long itemId, Function<NavigableSet<TimelineEntry>, TimelineEntry> lookup) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<TimelineEntry> timeline = timelines.get(itemId);
+            return timeline == null ? Optional.empty() : Optional.ofNullable(lookup.apply(timeline));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void afterCommit(Runnable change) {
+        Runnable locked = () -> {
+            lock.writeLock().lock();
+            try {
+                change.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    locked.run();
+                }
+            });
+        } else {
+            locked.run();
+        }
+    }
+
+    /**
+     * Adds the booking and marks its item when the booking overlaps a neighbour. Without overlaps the ends grow
+     * with the starts, so a new overlap always involves one of the two neighbours of the new booking.
+     */
+    private void add(TimelineEntry entry) {
+        entries.put(entry.getId(), entry);
+        NavigableSet<TimelineEntry> timeline = timelines.computeIfAbsent(entry.getItemId(),
+                itemId -> new TreeSet<>(BY_START));
+        timeline.add(entry);
+        if (overlaps(timeline.lower(entry), entry) || overlaps(entry, timeline.higher(entry))) {
+            overlapping.add(entry.getItemId());
+        }
+    }
+
+    private void remove(long bookingId) {
+        TimelineEntry entry = entries.remove(bookingId);
+        if (entry == null) {
+            return;
+        }
+        NavigableSet<TimelineEntry> timeline = timelines.get(entry.getItemId());
+        timeline.remove(entry);
+        if (timeline.isEmpty()) {
+            timelines.remove(entry.getItemId());
+            overlapping.remove(entry.getItemId());
+        } else if (overlapping.contains(entry.getItemId()) && !hasOverlaps(timeline)) {
+            overlapping.remove(entry.getItemId());
+        }
+    }
+
+    private static boolean hasOverlaps(NavigableSet<TimelineEntry> timeline) {
+        TimelineEntry previous = null;
+        for (TimelineEntry entry : timeline) {
+            if (overlaps(previous, entry)) {
+                return true;
+            }
+            previous = entry;
+        }
+        return false;
+    }
+
+    private static boolean overlaps(TimelineEntry earlier, TimelineEntry later) {
+        return earlier != null && later != null && earlier.getEnd().isAfter(later.getStart());
+    }
+
+    private static TimelineEntry endedLast(NavigableSet<TimelineEntry> started) {
+        TimelineEntry last = null;
+        for (TimelineEntry entry : started.descendingSet()) {
+            if (last == null || entry.getEnd().isAfter(last.getEnd())) {
+                last = entry;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * A booking that starts once the best one has ended also ends after it, so the walk stops there.
+     */
+    private static TimelineEntry endsFirst(NavigableSet<TimelineEntry> upcoming) {
+        TimelineEntry next = null;
+        for (TimelineEntry entry : upcoming) {
+            if (next != null && !entry.getStart().isBefore(next.getEnd())) {
+                break;
+            }
+            if (next == null || entry.getEnd().isBefore(next.getEnd())) {
+                next = entry;
+            }
+        }
+        return next;
+    }
+
+    private static TimelineEntry probe(long itemId, LocalDateTime start, long id) {
+        return new TimelineEntry(id, itemId, null, start, null);
+    }
+}
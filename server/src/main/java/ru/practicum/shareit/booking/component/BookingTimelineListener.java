@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.component;
+
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.PostRemove;
+
+/**
+ * Keeps the {@link BookingTimeline} free of deleted bookings. Hibernate creates the listener through the Spring bean
+ * container; the timeline is looked up lazily, since the entity manager factory is built before it. Bulk deletes
+ * bypass entity callbacks and are therefore not seen.
+ */
+public class BookingTimelineListener {
+    private final ObjectProvider<BookingTimeline> bookingTimeline;
+
+    public BookingTimelineListener(ObjectProvider<BookingTimeline> bookingTimeline) {
+        this.bookingTimeline = bookingTimeline;
+    }
+
+    @PostRemove
+    public void afterRemove(Booking booking) {
+        bookingTimeline.ifAvailable(timeline -> timeline.evict(booking.getId()));
+    }
+}
@@ -1,27 +1,40 @@
 package ru.practicum.shareit.booking.component;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.BookingMapper;
+import ru.practicum.shareit.enums.Role;
 import ru.practicum.shareit.enums.State;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
+@Component
 public class GetBookingsCurrent extends Chain {
     public GetBookingsCurrent(BookingRepository bookingRepository, BookingMapper bookingMapper) {
         super(bookingRepository, bookingMapper);
     }
 
     public List<BookingDto> findBookings(long userId, Pageable page) {
-        return bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByEndDesc(userId,
-                LocalDateTime.now(), LocalDateTime.now(), page).stream()
+        return bookingRepository.findCurrentByBookerId(userId, LocalDateTime.now(), page).stream()
+                .map(bookingMapper::toBookingDto).collect(Collectors.toList());
+    }
+
+    public List<BookingDto> findBookings(long userId, BookingCursor cursor, int size) {
+        return bookingRepository.findCurrentByBookerIdBefore(userId, cursor.getEnd(), cursor.getId(), LocalDateTime.now(),
+                PageRequest.of(0, size)).stream()
                 .map(bookingMapper::toBookingDto).collect(Collectors.toList());
     }
 
     public State getState() {
         return State.CURRENT;
     }
+
+    public Role getRole() {
+        return Role.BOOKER;
+    }
 }
@@ -1,25 +1,39 @@
 package ru.practicum.shareit.booking.component;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.BookingMapper;
+import ru.practicum.shareit.enums.Role;
 import ru.practicum.shareit.enums.State;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
+@Component
 public class GetBookingsOwnerAll extends Chain {
     public GetBookingsOwnerAll(BookingRepository bookingRepository, BookingMapper bookingMapper) {
         super(bookingRepository, bookingMapper);
     }
 
     public List<BookingDto> findBookings(long userId, Pageable page) {
-        return bookingRepository.findByItemOwnerOrderByStartDesc(userId, page).stream()
+        return bookingRepository.findByItemOwner(userId, page).stream()
+                .map(bookingMapper::toBookingDto).collect(Collectors.toList());
+    }
+
+    public List<BookingDto> findBookings(long userId, BookingCursor cursor, int size) {
+        return bookingRepository.findByItemOwnerBefore(userId, cursor.getStart(), cursor.getId(),
+                PageRequest.of(0, size)).stream()
                 .map(bookingMapper::toBookingDto).collect(Collectors.toList());
     }
 
     public State getState() {
         return State.ALL;
     }
+
+    public Role getRole() {
+        return Role.OWNER;
+    }
 }
@@ -1,26 +1,40 @@
 package ru.practicum.shareit.booking.component;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.BookingMapper;
+import ru.practicum.shareit.enums.Role;
 import ru.practicum.shareit.enums.State;
 import ru.practicum.shareit.enums.Status;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
+@Component
 public class GetBookingsRejected extends Chain {
     public GetBookingsRejected(BookingRepository bookingRepository, BookingMapper bookingMapper) {
         super(bookingRepository, bookingMapper);
     }
 
     public List<BookingDto> findBookings(long userId, Pageable page) {
-        return bookingRepository.findByBookerIdAndStatusIsOrderByStartDesc(userId, Status.REJECTED, page).stream()
+        return bookingRepository.findByBookerIdAndStatus(userId, Status.REJECTED, page).stream()
+                .map(bookingMapper::toBookingDto).collect(Collectors.toList());
+    }
+
+    public List<BookingDto> findBookings(long userId, BookingCursor cursor, int size) {
+        return bookingRepository.findByBookerIdAndStatusBefore(userId, cursor.getStart(), cursor.getId(), Status.REJECTED,
+                PageRequest.of(0, size)).stream()
                 .map(bookingMapper::toBookingDto).collect(Collectors.toList());
     }
 
     public State getState() {
         return State.REJECTED;
     }
+
+    public Role getRole() {
+        return Role.BOOKER;
+    }
 }
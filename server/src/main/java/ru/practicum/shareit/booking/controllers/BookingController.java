@@ -1,8 +1,13 @@
 package ru.practicum.shareit.booking.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,18 +18,31 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.booking.component.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.enums.Role;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.metrics.ExpectSimilarStatements;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 import static ru.practicum.shareit.variables.Variables.HEADER;
+import static ru.practicum.shareit.variables.Variables.NEXT_CURSOR;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @AllArgsConstructor
 public class BookingController {
     public final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping()
     public BookingDto createBooking(@RequestHeader(HEADER) long userId, @RequestBody BookingDto bookingDto) {
@@ -37,6 +55,13 @@ public class BookingController {
         return bookingService.updateBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping()
+    @ExpectSimilarStatements(BookingServiceImpl.MAX_DECISIONS)
+    public List<BookingDecisionResult> updateBookings(@RequestHeader(HEADER) long userId,
+                                                      @RequestBody List<BookingDecisionDto> decisions) {
+        return bookingService.updateBookings(userId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
     @ResponseBody
     public BookingDto getBookingById(@RequestHeader(HEADER) long userId, @PathVariable long bookingId) {
@@ -45,21 +70,96 @@ public class BookingController {
 
     @GetMapping()
     @ResponseBody
-    public List<BookingDto> getBookingsByUser(@RequestHeader(HEADER) long userId,
-                                              @RequestParam String state,
-                                              @RequestParam int from,
-                                              @RequestParam int size) {
-        Pageable page = PageRequest.of(from / size, size);
-        return bookingService.getBookingsByUser(userId, state, page);
+    public ResponseEntity<List<BookingDto>> getBookingsByUser(@RequestHeader(HEADER) long userId,
+                                                              @RequestParam String state,
+                                                              @RequestParam(required = false) Integer from,
+                                                              @RequestParam int size,
+                                                              @RequestParam(required = false) String cursor) {
+        checkPage(from, size, cursor);
+        if (cursor == null) {
+            Pageable page = OffsetPageRequest.of(from, size);
+            return ResponseEntity.ok(bookingService.getBookingsByUser(userId, state, page));
+        }
+        return withNextCursor(bookingService.getBookingsByUser(userId, state, BookingCursor.decode(cursor), size),
+                size);
     }
 
     @GetMapping("/owner")
     @ResponseBody
-    public List<BookingDto> getBookingsByItemsOfUser(@RequestHeader(HEADER) long userId,
-                                                     @RequestParam String state,
-                                                     @RequestParam int from,
-                                                     @RequestParam int size) {
-        Pageable page = PageRequest.of(from / size, size);
-        return bookingService.getBookingsByItemsOfUser(userId, state, page);
+    public ResponseEntity<List<BookingDto>> getBookingsByItemsOfUser(@RequestHeader(HEADER) long userId,
+                                                                     @RequestParam String state,
+                                                                     @RequestParam(required = false) Integer from,
+                                                                     @RequestParam int size,
+                                                                     @RequestParam(required = false) String cursor) {
+        checkPage(from, size, cursor);
+        if (cursor == null) {
+            Pageable page = OffsetPageRequest.of(from, size);
+            return ResponseEntity.ok(bookingService.getBookingsByItemsOfUser(userId, state, page));
+        }
+        return withNextCursor(bookingService.getBookingsByItemsOfUser(userId, state, BookingCursor.decode(cursor),
+                size), size);
+    }
+
+    @GetMapping("/export")
+    public void exportBookings(@RequestHeader(HEADER) long userId, HttpServletResponse response) throws IOException {
+        writeBookings(userId, Role.BOOKER, response);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportBookingsByItemsOfUser(@RequestHeader(HEADER) long userId, HttpServletResponse response)
+            throws IOException {
+        writeBookings(userId, Role.OWNER, response);
+    }
+
+    /**
+     * Writes the bookings as one JSON array while they are read, flushing only when the buffer of the generator
+     * is full. The opening bracket stays in that buffer until the first flush, so an unknown user still gets
+     * the usual error body.
+     */
+    private void writeBookings(long userId, Role role, HttpServletResponse response) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(BookingDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        generator.writeStartArray();
+        bookingService.exportBookings(userId, role, booking -> {
+            try {
+                writer.writeValue(generator, booking);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        });
+        generator.writeEndArray();
+        generator.flush();
+    }
+
+    /**
+     * The gateway already validates the page, but a bad size must not reach the repository as a 500 either way,
+     * with or without a cursor. A page is either an offset or a cursor: the cursor already holds the position,
+     * so an offset next to it would be silently ignored and is rejected instead.
+     */
+    private static void checkPage(Integer from, int size, String cursor) {
+        if (cursor != null && from != null) {
+            throw new ValidationException("From cannot be combined with a cursor");
+        }
+        if (cursor == null && from == null) {
+            throw new ValidationException("From or cursor is required");
+        }
+        if (from != null && from < 0) {
+            throw new ValidationException("From must not be negative");
+        }
+        if (size < 1) {
+            throw new ValidationException("Size must be positive");
+        }
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, int size) {
+        if (bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        BookingDto last = bookings.get(bookings.size() - 1);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR, new BookingCursor(last.getStart(), last.getEnd(), last.getId()).encode())
+                .body(bookings);
     }
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A booking as kept in the booking timeline: just enough to order it and to answer a last or next booking lookup.
+ */
+@Getter
+@AllArgsConstructor
+public class TimelineEntry {
+    private final Long id;
+    private final Long itemId;
+    private final Long bookerId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
@@ -1,11 +1,25 @@
 package ru.practicum.shareit.booking.model;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 
 @Mapper(componentModel = "spring")
 public interface BookingMapper {
     Booking toBooking(BookingDto bookingDto);
 
     BookingDto toBookingDto(Booking booking);
+
+    @Mapping(target = "itemId", ignore = true)
+    @Mapping(target = "item.id", source = "itemId")
+    @Mapping(target = "item.name", source = "itemName")
+    @Mapping(target = "item.description", source = "itemDescription")
+    @Mapping(target = "item.available", source = "itemAvailable")
+    @Mapping(target = "item.owner", source = "itemOwner")
+    @Mapping(target = "item.requestId", source = "itemRequestId")
+    @Mapping(target = "booker.id", source = "bookerId")
+    @Mapping(target = "booker.name", source = "bookerName")
+    @Mapping(target = "booker.email", source = "bookerEmail")
+    BookingDto toBookingDto(BookingView bookingView);
 }
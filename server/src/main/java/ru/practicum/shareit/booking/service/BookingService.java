@@ -1,18 +1,31 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.component.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.enums.Role;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto createBooking(long userId, BookingDto bookingDto);
 
     BookingDto updateBooking(long userId, long bookingId, boolean approved);
 
+    List<BookingDecisionResult> updateBookings(long userId, List<BookingDecisionDto> decisions);
+
     BookingDto getBookingById(long userId, long bookingId);
 
     List<BookingDto> getBookingsByUser(long userId, String state, Pageable page);
 
     List<BookingDto> getBookingsByItemsOfUser(long userId, String state, Pageable page);
+
+    List<BookingDto> getBookingsByUser(long userId, String state, BookingCursor cursor, int size);
+
+    List<BookingDto> getBookingsByItemsOfUser(long userId, String state, BookingCursor cursor, int size);
+
+    void exportBookings(long userId, Role role, Consumer<BookingDto> consumer);
 }
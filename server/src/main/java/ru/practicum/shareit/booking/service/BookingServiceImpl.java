@@ -2,28 +2,25 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.component.Chain;
-import ru.practicum.shareit.booking.component.GetBookingsAll;
-import ru.practicum.shareit.booking.component.GetBookingsCurrent;
-import ru.practicum.shareit.booking.component.GetBookingsFuture;
-import ru.practicum.shareit.booking.component.GetBookingsOwnerAll;
-import ru.practicum.shareit.booking.component.GetBookingsOwnerCurrent;
-import ru.practicum.shareit.booking.component.GetBookingsOwnerFuture;
-import ru.practicum.shareit.booking.component.GetBookingsOwnerPast;
-import ru.practicum.shareit.booking.component.GetBookingsOwnerRejected;
-import ru.practicum.shareit.booking.component.GetBookingsOwnerWaiting;
-import ru.practicum.shareit.booking.component.GetBookingsPast;
-import ru.practicum.shareit.booking.component.GetBookingsRejected;
-import ru.practicum.shareit.booking.component.GetBookingsWaiting;
+import ru.practicum.shareit.booking.component.BookingCursor;
+import ru.practicum.shareit.booking.component.BookingDispatcher;
+import ru.practicum.shareit.booking.component.BookingTimeline;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingMapper;
+import ru.practicum.shareit.enums.Role;
 import ru.practicum.shareit.enums.State;
 import ru.practicum.shareit.enums.Status;
 import ru.practicum.shareit.exceptions.AlreadyApproved;
+import ru.practicum.shareit.exceptions.BookingOverlap;
 import ru.practicum.shareit.exceptions.NoItemAvailable;
 import ru.practicum.shareit.exceptions.NoSuchBooking;
 import ru.practicum.shareit.exceptions.NoSuchItem;
@@ -38,27 +35,43 @@ import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    public static final int EXPORT_PAGE = 500;
+    public static final int MAX_DECISIONS = 500;
+    private static final List<Status> BLOCKING_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
     private final BookingRepository bookingRepository;
     private final BookingMapper bookingMapper;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final ItemService itemService;
+    private final BookingDispatcher bookingDispatcher;
+    private final BookingTimeline bookingTimeline;
 
     @Autowired
     public BookingServiceImpl(BookingMapper bookingMapper, BookingRepository bookingRepository,
-                              ItemService itemService, UserRepository userRepository, ItemRepository itemRepository) {
+                              ItemService itemService, UserRepository userRepository, ItemRepository itemRepository,
+                              BookingDispatcher bookingDispatcher, BookingTimeline bookingTimeline) {
         this.bookingMapper = bookingMapper;
+        this.bookingTimeline = bookingTimeline;
+        this.bookingDispatcher = bookingDispatcher;
         this.itemService = itemService;
         this.itemRepository = itemRepository;
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
     }
 
+    @Transactional
     public BookingDto createBooking(long userId, BookingDto bookingDto) {
         log.info("Looking for itemId {}", bookingDto.getItemId());
         if (!itemService.isItemAvailable(bookingDto.getItemId())) {
@@ -71,32 +84,80 @@ public class BookingServiceImpl implements BookingService {
         }
         Booking booking = bookingMapper.toBooking(bookingDto);
         User booker = userRepository.findById(userId).orElseThrow(() -> new NoSuchUser("Booker was not found"));
-        Item item = itemRepository.findById(bookingDto.getItemId()).orElseThrow(() -> new NoSuchItem("No item to book"));
+        Item item = itemRepository.findByIdForUpdate(bookingDto.getItemId())
+                .orElseThrow(() -> new NoSuchItem("No item to book"));
         if (booker.getId() == item.getOwner()) {
             throw new WrongUser("Cannot book items already owned by the booker");
         }
+        checkOverlap(item.getId(), booking);
         booking.setItem(item);
         booking.setBooker(booker);
         booking.setStatus(Status.WAITING);
         log.info("Creating booking with start date {} and end date {}", booking.getStart(), booking.getEnd());
-        return bookingMapper.toBookingDto(bookingRepository.save(booking));
+        Booking saved = bookingRepository.save(booking);
+        bookingTimeline.update(saved);
+        return bookingMapper.toBookingDto(saved);
     }
 
+    @Transactional
     public BookingDto updateBooking(long userId, long bookingId, boolean approved) {
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new NoSuchBooking("Booking was not found"));
+        decide(userId, booking, approved);
+        bookingRepository.save(booking);
+        bookingTimeline.update(booking);
+        return bookingMapper.toBookingDto(booking);
+    }
+
+    /**
+     * Approves or rejects many bookings in one transaction. The bookings are loaded with one query and checked
+     * in memory; a booking that fails a check is reported in its result and left unchanged, the others are
+     * written back at flush as one JDBC batch of updates. Approving a rejected booking locks its item and looks
+     * for overlaps, so those two statements may run once per decision.
+     */
+    @Transactional
+    public List<BookingDecisionResult> updateBookings(long userId, List<BookingDecisionDto> decisions) {
+        if (decisions.isEmpty() || decisions.size() > MAX_DECISIONS) {
+            throw new ValidationException("From 1 to " + MAX_DECISIONS + " bookings can be updated at once");
+        }
+        Set<Long> ids = decisions.stream().map(BookingDecisionDto::getBookingId).collect(Collectors.toSet());
+        Map<Long, Booking> bookings = bookingRepository.findAllWithItemAndBookerByIdIn(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        log.info("Updating {} bookings of owner {}, {} of them were found", ids.size(), userId, bookings.size());
+        List<BookingDecisionResult> results = new ArrayList<>(decisions.size());
+        for (BookingDecisionDto decision : decisions) {
+            BookingDecisionResult result = BookingDecisionResult.builder().bookingId(decision.getBookingId()).build();
+            try {
+                Booking booking = bookings.get(decision.getBookingId());
+                if (booking == null) {
+                    throw new NoSuchBooking("Booking was not found");
+                }
+                decide(userId, booking, decision.isApproved());
+                bookingTimeline.update(booking);
+                result.setBooking(bookingMapper.toBookingDto(booking));
+            } catch (NoSuchBooking | WrongUser | AlreadyApproved | BookingOverlap exception) {
+                result.setError(exception.getMessage());
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    private void decide(long userId, Booking booking, boolean approved) {
         if (booking.getItem().getOwner() != userId) {
             throw new WrongUser("User is not an owner of this item for this booking");
         }
         if (approved && (booking.getStatus() == Status.APPROVED)) {
             throw new AlreadyApproved("This booking was already approved");
         }
+        if (approved && booking.getStatus() == Status.REJECTED) {
+            itemRepository.findByIdForUpdate(booking.getItem().getId());
+            checkOverlap(booking.getItem().getId(), booking);
+        }
         if (approved) {
             booking.setStatus(Status.APPROVED);
         } else {
             booking.setStatus(Status.REJECTED);
         }
-        bookingRepository.save(booking);
-        return bookingMapper.toBookingDto(booking);
     }
 
     public BookingDto getBookingById(long userId, long bookingId) {
@@ -107,14 +168,9 @@ public class BookingServiceImpl implements BookingService {
         return bookingMapper.toBookingDto(booking);
     }
 
+    @Transactional(readOnly = true)
     public List<BookingDto> getBookingsByUser(long userId, String state, Pageable page) {
-        Chain chain = Chain.link(new GetBookingsAll(bookingRepository, bookingMapper),
-                   new GetBookingsRejected(bookingRepository, bookingMapper),
-                   new GetBookingsWaiting(bookingRepository, bookingMapper),
-                   new GetBookingsPast(bookingRepository, bookingMapper),
-                   new GetBookingsFuture(bookingRepository, bookingMapper),
-                   new GetBookingsCurrent(bookingRepository, bookingMapper));
-        List<BookingDto> bookings = chain.processRequest(userId, stringToState(state), page);
+        List<BookingDto> bookings = bookingDispatcher.findBookings(Role.BOOKER, userId, stringToState(state), page);
 
         if (bookings.isEmpty()) {
             throw new NoSuchBooking("Bookings were not found");
@@ -122,14 +178,9 @@ public class BookingServiceImpl implements BookingService {
         return bookings;
     }
 
+    @Transactional(readOnly = true)
     public List<BookingDto> getBookingsByItemsOfUser(long userId, String state, Pageable page) {
-        Chain chain = Chain.link(new GetBookingsOwnerAll(bookingRepository, bookingMapper),
-                new GetBookingsOwnerRejected(bookingRepository, bookingMapper),
-                new GetBookingsOwnerWaiting(bookingRepository, bookingMapper),
-                new GetBookingsOwnerPast(bookingRepository, bookingMapper),
-                new GetBookingsOwnerFuture(bookingRepository, bookingMapper),
-                new GetBookingsOwnerCurrent(bookingRepository, bookingMapper));
-        List<BookingDto> bookings = chain.processRequest(userId, stringToState(state), page);
+        List<BookingDto> bookings = bookingDispatcher.findBookings(Role.OWNER, userId, stringToState(state), page);
 
         if (bookings.isEmpty()) {
             throw new NoSuchBooking("Bookings were not found");
@@ -137,11 +188,65 @@ public class BookingServiceImpl implements BookingService {
         return bookings;
     }
 
+    @Transactional(readOnly = true)
+    public List<BookingDto> getBookingsByUser(long userId, String state, BookingCursor cursor, int size) {
+        List<BookingDto> bookings = bookingDispatcher.findBookings(Role.BOOKER, userId, stringToState(state), cursor,
+                size);
+
+        if (bookings.isEmpty() && cursor.isFirst()) {
+            throw new NoSuchBooking("Bookings were not found");
+        }
+        return bookings;
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookingDto> getBookingsByItemsOfUser(long userId, String state, BookingCursor cursor, int size) {
+        List<BookingDto> bookings = bookingDispatcher.findBookings(Role.OWNER, userId, stringToState(state), cursor,
+                size);
+
+        if (bookings.isEmpty() && cursor.isFirst()) {
+            throw new NoSuchBooking("Bookings were not found");
+        }
+        return bookings;
+    }
+
+    /**
+     * Passes the whole booking history of the booker or owner to the consumer, newest first. The history is read
+     * as views in keyset pages of {@link #EXPORT_PAGE} bookings, each page in a short read-only transaction of
+     * its own, so no connection is held while the consumer writes a page to a slow client.
+     */
+    public void exportBookings(long userId, Role role, Consumer<BookingDto> consumer) {
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchUser("No such user");
+        }
+        Pageable page = PageRequest.of(0, EXPORT_PAGE);
+        List<BookingView> bookings = role == Role.BOOKER ? bookingRepository.findByBookerId(userId,
+                page) : bookingRepository.findByItemOwner(userId, page);
+        while (true) {
+            bookings.stream().map(bookingMapper::toBookingDto).forEach(consumer);
+            if (bookings.size() < EXPORT_PAGE) {
+                return;
+            }
+            BookingView last = bookings.get(bookings.size() - 1);
+            bookings = role == Role.BOOKER
+                    ? bookingRepository.findByBookerIdBefore(userId, last.getStart(), last.getId(), page)
+                    : bookingRepository.findByItemOwnerBefore(userId, last.getStart(), last.getId(), page);
+        }
+    }
+
     private State stringToState(String state) {
-        try {
-            return State.valueOf(state);
-        } catch (IllegalArgumentException exception) {
-            throw new UnknownState("UNSUPPORTED_STATUS");
+        return State.from(state).orElseThrow(() -> new UnknownState("UNSUPPORTED_STATUS"));
+    }
+
+    /**
+     * Rejects the booking if its dates intersect a waiting or approved booking of the item. The caller holds
+     * the item row lock, so two transactions booking the same item run this check one after another.
+     */
+    private void checkOverlap(long itemId, Booking booking) {
+        boolean overlaps = bookingRepository.findOverlapping(itemId, booking.getStart(), booking.getEnd(),
+                BLOCKING_STATUSES).stream().anyMatch(other -> other.getId() != booking.getId());
+        if (overlaps) {
+            throw new BookingOverlap("The item is already booked for these dates");
         }
     }
 }
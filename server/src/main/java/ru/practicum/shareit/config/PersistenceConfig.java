@@ -1,17 +1,33 @@
 package ru.practicum.shareit.config;
 
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import ru.practicum.shareit.metrics.QueryMetricsListener;
+import ru.practicum.shareit.tracing.QueryTracingListener;
 
+import javax.cache.CacheManager;
+import javax.cache.Caching;
 import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.util.Properties;
 
 @Configuration
@@ -28,21 +44,83 @@ public class PersistenceConfig {
         Properties properties = new Properties();
         properties.put("hibernate.dialect", environment.getRequiredProperty("spring.jpa.properties.hibernate.dialect"));
         properties.put("hibernate.show_sql", environment.getRequiredProperty("spring.jpa.properties.hibernate.show_sql"));
+        properties.put("hibernate.generate_statistics",
+                environment.getProperty("spring.jpa.properties.hibernate.generate_statistics", "false"));
+        properties.put("hibernate.jdbc.batch_size",
+                environment.getProperty("spring.jpa.properties.hibernate.jdbc.batch_size", "50"));
+        properties.put("hibernate.order_updates",
+                environment.getProperty("spring.jpa.properties.hibernate.order_updates", "true"));
+        properties.put("hibernate.order_inserts",
+                environment.getProperty("spring.jpa.properties.hibernate.order_inserts", "true"));
+        properties.put("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+        properties.put("hibernate.cache.use_second_level_cache",
+                environment.getProperty("spring.jpa.properties.hibernate.cache.use_second_level_cache", "true"));
+        properties.put("hibernate.cache.use_query_cache",
+                environment.getProperty("spring.jpa.properties.hibernate.cache.use_query_cache", "true"));
+        properties.put("hibernate.cache.region.factory_class", "jcache");
+        properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
         return properties;
     }
 
-    @Bean
-    public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
+    @Bean(autowireCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource hikariDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
         dataSource.setDriverClassName(environment.getRequiredProperty("spring.datasource.driverClassName"));
-        dataSource.setUrl(environment.getRequiredProperty("spring.datasource.url"));
+        dataSource.setJdbcUrl(environment.getRequiredProperty("spring.datasource.url"));
         dataSource.setUsername(environment.getRequiredProperty("spring.datasource.username"));
         dataSource.setPassword(environment.getRequiredProperty("spring.datasource.password"));
         return dataSource;
     }
 
+    /**
+     * The pool behind a proxy that reports every statement and every row read from a result set to the query
+     * metrics and, when tracing is on, wraps every statement in a span. The tracing listener goes first, so its
+     * span ends even when the metrics listener fails a request. The pool is reached through
+     * {@link DataSource#unwrap(Class)}; a context without the metrics, such as a repository test slice, gets the
+     * pool itself.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ObjectProvider<QueryMetricsListener> queryMetricsListener,
+                                 ObjectProvider<QueryTracingListener> queryTracingListener) {
+        QueryMetricsListener listener = queryMetricsListener.getIfAvailable();
+        if (listener == null) {
+            return hikariDataSource();
+        }
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(hikariDataSource()).name("shareit");
+        queryTracingListener.ifAvailable(builder::listener);
+        return builder
+                .listener(listener)
+                .methodListener(listener)
+                .proxyResultSet()
+                .build();
+    }
+
+    /**
+     * Heap cache behind the Hibernate second-level cache. Sizes and time to live of the regions are set in
+     * ehcache.xml; hits, misses and evictions of every region are published as cache.* metrics.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() throws URISyntaxException {
+        URL config = getClass().getResource(environment.getProperty("shareit.cache.config", "/ehcache.xml"));
+        return Caching.getCachingProvider(EhcacheCachingProvider.class.getName())
+                .getCacheManager(config.toURI(), getClass().getClassLoader());
+    }
+
+    @Bean
+    public MeterBinder hibernateCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> hibernateCacheManager.getCacheNames().forEach(name ->
+                JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(name)));
+    }
+
+    /**
+     * Hibernate creates entity listeners through the Spring bean container, so they can depend on beans.
+     */
     @Bean
-    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource,
+                                                                       CacheManager hibernateCacheManager,
+                                                                       ConfigurableListableBeanFactory beanFactory) {
         final LocalContainerEntityManagerFactoryBean emf = new LocalContainerEntityManagerFactoryBean();
         emf.setDataSource(dataSource);
         emf.setPackagesToScan("ru.practicum");
@@ -50,6 +128,8 @@ public class PersistenceConfig {
         final HibernateJpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
         emf.setJpaVendorAdapter(vendorAdapter);
         emf.setJpaProperties(hibernateProperties());
+        emf.getJpaPropertyMap().put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+        emf.getJpaPropertyMap().put(AvailableSettings.BEAN_CONTAINER, new SpringBeanContainer(beanFactory));
 
         return emf;
     }
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * Handles every servlet request, and so every repository call made while handling it, on a virtual thread of
+ * its own instead of a thread of the Tomcat pool. A request blocked on the database no longer holds a platform
+ * thread, so the number of requests served at once is bounded by the connection pool: a request waits up to
+ * {@code spring.datasource.hikari.connection-timeout} for a connection. Enabled by
+ * {@code shareit.execution.mode=virtual}; on a runtime without virtual threads the Tomcat pool is kept.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "shareit.execution.mode", havingValue = "virtual")
+public class VirtualThreadExecution implements TomcatProtocolHandlerCustomizer<ProtocolHandler> {
+    private final Optional<Executor> executor = VirtualThreads.executor("http-virtual-");
+
+    @Override
+    public void customize(ProtocolHandler protocolHandler) {
+        if (executor.isEmpty()) {
+            log.warn("Virtual threads are not available on Java {}, requests run on the Tomcat thread pool",
+                    Runtime.version().feature());
+            return;
+        }
+        protocolHandler.setExecutor(executor.get());
+        log.info("Requests run on virtual threads, the connection pool bounds their concurrency");
+    }
+
+    public boolean isVirtual() {
+        return executor.isPresent();
+    }
+}
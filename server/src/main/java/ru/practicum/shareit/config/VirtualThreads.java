@@ -0,0 +1,38 @@
+package ru.practicum.shareit.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Virtual threads of Java 21, looked up by reflection because the server is built for Java 11. On an older
+ * runtime, or on Java 19 and 20 without preview features, they are reported as unavailable.
+ */
+public final class VirtualThreads {
+    private VirtualThreads() {
+    }
+
+    /**
+     * Returns a factory of virtual threads named by the prefix and a sequence number.
+     */
+    public static Optional<ThreadFactory> factory(String prefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return Optional.of((ThreadFactory) builderType.getMethod("factory").invoke(builder));
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException
+                 | InvocationTargetException exception) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns an executor that runs every task on a virtual thread of its own. Virtual threads are cheap to
+     * create and are never pooled, so the executor has nothing to bound or to shut down.
+     */
+    public static Optional<Executor> executor(String prefix) {
+        return factory(prefix).map(factory -> task -> factory.newThread(task).start());
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.enums;
+
+public enum Role {
+    BOOKER,
+    OWNER
+}
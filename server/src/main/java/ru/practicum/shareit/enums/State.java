@@ -1,10 +0,0 @@
-package ru.practicum.shareit.enums;
-
-public enum State {
-    ALL,
-    CURRENT,
-    PAST,
-    FUTURE,
-    WAITING,
-    REJECTED
-}
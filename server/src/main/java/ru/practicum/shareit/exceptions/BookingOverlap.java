@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exceptions;
+
+public class BookingOverlap extends RuntimeException {
+    public BookingOverlap(String message) {
+        super(message);
+    }
+}
@@ -65,6 +65,13 @@ public class ErrorHandler {
         return Map.of("The booking was already approved", exception.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleBookingOverlap(final BookingOverlap exception) {
+        log.warn(exception.getMessage());
+        return Map.of("The item is already booked", exception.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Map<String, String> handleValidationError(final ValidationException exception) {
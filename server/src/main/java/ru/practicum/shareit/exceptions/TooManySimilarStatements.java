@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exceptions;
+
+public class TooManySimilarStatements extends RuntimeException {
+    public TooManySimilarStatements(String message) {
+        super(message);
+    }
+}
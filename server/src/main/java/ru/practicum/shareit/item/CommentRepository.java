@@ -1,12 +1,18 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @Query("select c from Comment c join fetch c.author where c.itemId = ?1")
     List<Comment> findAllByItemId(long itemId);
+
+    @Query("select c from Comment c join fetch c.author where c.itemId in ?1")
+    List<Comment> findAllByItemIdIn(Collection<Long> itemIds);
 }
@@ -0,0 +1,250 @@
+package ru.practicum.shareit.item.component;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory trigram index over the name and description of available items. A search collects the candidates
+ * sharing every trigram of the text, checks them for a real substring match and ranks name matches above
+ * description matches. Unavailable items are kept out of the index, so they never reach the result.
+ * <p>
+ * Every substring of one and two characters is indexed as well, so a text shorter than a trigram is answered from
+ * its own posting list instead of scanning every document.
+ * <p>
+ * The index is loaded once all singletons exist, before the web server starts accepting requests, so no search is
+ * answered from an empty index. It only sees the item changes made by this server instance: with several instances
+ * behind one database an item created or updated through another instance is not found here until a restart.
+ */
+@Component
+@Slf4j
+public class ItemSearchIndex implements SmartInitializingSingleton {
+    private static final int GRAM = 3;
+    private static final int BATCH_SIZE = 1000;
+    private static final Comparator<Match> BY_RELEVANCE = Comparator.comparingInt(Match::getScore).reversed()
+            .thenComparingLong(match -> match.getDocument().getItem().getId());
+
+    private final ItemRepository itemRepository;
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Autowired
+    public ItemSearchIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            List<Item> batch;
+            long lastId = 0;
+            do {
+                batch = itemRepository.findAllAfter(lastId, PageRequest.of(0, BATCH_SIZE));
+                batch.forEach(item -> put(copy(item)));
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == BATCH_SIZE);
+            log.info("Search index was built for {} available items", documents.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds, replaces or removes the item. Inside a transaction the change is applied only after the commit,
+     * so a rolled back update never becomes searchable.
+     */
+    public void index(Item item) {
+        Item snapshot = copy(item);
+        Runnable change = () -> {
+            lock.writeLock().lock();
+            try {
+                put(snapshot);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * Returns a page of the matches, best first. Only the best {@code from + size} matches are kept while the
+     * candidates are scored, so a short text that matches most of the catalog is not sorted as a whole.
+     */
+    public List<Item> search(String text, int from, int size) {
+        String query = text.toLowerCase(Locale.ROOT);
+        int limit = (int) Math.min((long) from + size, Integer.MAX_VALUE);
+        if (size <= 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<Match> top = new PriorityQueue<>(BY_RELEVANCE.reversed());
+        lock.readLock().lock();
+        try {
+            for (Document document : candidates(query)) {
+                int score = document.score(query);
+                if (score == 0) {
+                    continue;
+                }
+                Match match = new Match(document, score);
+                if (top.size() < limit) {
+                    top.add(match);
+                } else if (BY_RELEVANCE.compare(match, top.peek()) < 0) {
+                    top.poll();
+                    top.add(match);
+                }
+            }
+            List<Match> matches = new ArrayList<>(top);
+            matches.sort(BY_RELEVANCE);
+            return matches.stream()
+                    .skip(from)
+                    .map(match -> copy(match.getDocument().getItem()))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Document> candidates(String query) {
+        if (query.length() < GRAM) {
+            Set<Long> ids = postings.getOrDefault(query, Set.of());
+            return ids.stream().map(documents::get).collect(Collectors.toList());
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(query, GRAM)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result.stream().map(documents::get).collect(Collectors.toList());
+    }
+
+    private void put(Item item) {
+        remove(item.getId());
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        Document document = new Document(item);
+        documents.put(item.getId(), document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(item.getId());
+        }
+    }
+
+    private void remove(long itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        for (String gram : document.grams()) {
+            Set<Long> ids = postings.get(gram);
+            ids.remove(itemId);
+            if (ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * Returns the substrings of the text from {@code minLength} up to {@link #GRAM} characters long.
+     */
+    private static Set<String> grams(String text, int minLength) {
+        Set<String> grams = new HashSet<>();
+        for (int length = minLength; length <= GRAM; length++) {
+            for (int i = 0; i + length <= text.length(); i++) {
+                grams.add(text.substring(i, i + length));
+            }
+        }
+        return grams;
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Item copy(Item item) {
+        return Item.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .owner(item.getOwner())
+                .requestId(item.getRequestId())
+                .build();
+    }
+
+    @Getter
+    private static class Document {
+        private final Item item;
+        private final String name;
+        private final String description;
+
+        Document(Item item) {
+            this.item = item;
+            this.name = lower(item.getName());
+            this.description = lower(item.getDescription());
+        }
+
+        Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams(name, 1);
+            grams.addAll(ItemSearchIndex.grams(description, 1));
+            return grams;
+        }
+
+        int score(String query) {
+            return (name.contains(query) ? 2 : 0) + (description.contains(query) ? 1 : 0);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Match {
+        private final Document document;
+        private final int score;
+    }
+}
@@ -0,0 +1,242 @@
+package ru.practicum.shareit.item.component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.enums.ItemFormat;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportError;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemMapper;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Bulk import and export of the items of one owner. The import reads the payload line by line and writes every
+ * {@link #BATCH_SIZE} valid items in a transaction of their own, so neither the payload nor the saved items are
+ * held in memory. The export reads the items in pages of the same size and hands them over one at a time.
+ */
+@Component
+@Slf4j
+public class ItemTransfer {
+    public static final int BATCH_SIZE = 500;
+    private static final int MAX_NAME = 30;
+    private static final int MAX_DESCRIPTION = 255;
+    private static final List<String> CSV_COLUMNS = List.of("name", "description", "available");
+
+    private final ItemRepository itemRepository;
+    private final ItemMapper itemMapper;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public ItemTransfer(ItemRepository itemRepository, ItemMapper itemMapper, ItemSearchIndex itemSearchIndex,
+                        ObjectMapper objectMapper, TransactionTemplate transactionTemplate,
+                        EntityManager entityManager) {
+        this.itemRepository = itemRepository;
+        this.itemMapper = itemMapper;
+        this.itemSearchIndex = itemSearchIndex;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Imports one item per line. A line that cannot be parsed or validated, or a line of a batch that failed to
+     * save for any reason, is reported by its line number; the other lines are imported anyway. A CSV payload
+     * starts with a header naming the name, description, available and optional requestId columns in any order.
+     */
+    public ItemImportResult importItems(long userId, ItemFormat format, Reader reader) {
+        ItemImportResult result = new ItemImportResult();
+        List<Item> batch = new ArrayList<>(BATCH_SIZE);
+        List<Long> batchLines = new ArrayList<>(BATCH_SIZE);
+        Map<String, Integer> header = null;
+        long number = 0;
+        try {
+            BufferedReader lines = new BufferedReader(reader);
+            String line;
+            while ((line = lines.readLine()) != null) {
+                number++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == ItemFormat.CSV && header == null) {
+                    header = readHeader(line);
+                    continue;
+                }
+                try {
+                    Item item = itemMapper.toItem(validate(format == ItemFormat.CSV ? readCsv(header, line)
+                            : readJson(line)));
+                    item.setId(0);
+                    item.setOwner(userId);
+                    batch.add(item);
+                    batchLines.add(number);
+                } catch (ValidationException exception) {
+                    result.getErrors().add(new ItemImportError(number, exception.getMessage()));
+                }
+                if (batch.size() == BATCH_SIZE) {
+                    save(batch, batchLines, result);
+                }
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        save(batch, batchLines, result);
+        result.getErrors().sort(Comparator.comparingLong(ItemImportError::getLine));
+        result.setFailed(result.getErrors().size());
+        log.info("{} items of user {} were imported, {} lines failed", result.getImported(), userId,
+                result.getFailed());
+        return result;
+    }
+
+    /**
+     * Passes the items of the owner to the consumer in the order of their ids. The items are read in keyset pages
+     * of {@link #BATCH_SIZE}, each page in a short read-only transaction of its own that bypasses the second-level
+     * cache, so no connection is held while the consumer writes a page to a slow client.
+     */
+    public void exportItems(long userId, Consumer<ItemDto> consumer) {
+        long lastId = 0;
+        List<Item> items;
+        do {
+            items = itemRepository.findByOwnerAfter(userId, lastId, PageRequest.of(0, BATCH_SIZE));
+            items.stream().map(itemMapper::toItemDto).forEach(consumer);
+            lastId = items.isEmpty() ? lastId : items.get(items.size() - 1).getId();
+        } while (items.size() == BATCH_SIZE);
+    }
+
+    private void save(List<Item> batch, List<Long> batchLines, ItemImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                itemRepository.saveAllAndFlush(batch);
+                batch.forEach(itemSearchIndex::index);
+                entityManager.clear();
+            });
+            result.setImported(result.getImported() + batch.size());
+        } catch (RuntimeException exception) {
+            log.warn("A batch of {} items was not saved", batch.size(), exception);
+            String cause = exception instanceof DataAccessException
+                    ? ((DataAccessException) exception).getMostSpecificCause().getMessage() : exception.getMessage();
+            String error = "Item was not saved: " + cause;
+            batchLines.forEach(line -> result.getErrors().add(new ItemImportError(line, error)));
+        }
+        batch.clear();
+        batchLines.clear();
+    }
+
+    private ItemDto readJson(String line) {
+        try {
+            return objectMapper.readValue(line, ItemDto.class);
+        } catch (JsonProcessingException exception) {
+            throw new ValidationException("Malformed JSON: " + exception.getOriginalMessage());
+        }
+    }
+
+    private Map<String, Integer> readHeader(String line) {
+        Map<String, Integer> header = new HashMap<>();
+        List<String> columns = splitCsv(line);
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!header.keySet().containsAll(CSV_COLUMNS)) {
+            throw new ValidationException("CSV header must name the columns " + String.join(", ", CSV_COLUMNS));
+        }
+        return header;
+    }
+
+    private ItemDto readCsv(Map<String, Integer> header, String line) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() != header.size()) {
+            throw new ValidationException("Expected " + header.size() + " fields but found " + fields.size());
+        }
+        String available = fields.get(header.get("available")).trim();
+        if (!available.equalsIgnoreCase("true") && !available.equalsIgnoreCase("false")) {
+            throw new ValidationException("Available must be true or false");
+        }
+        ItemDto itemDto = ItemDto.builder()
+                .name(fields.get(header.get("name")))
+                .description(fields.get(header.get("description")))
+                .available(Boolean.parseBoolean(available))
+                .build();
+        Integer requestColumn = header.get("requestid");
+        if (requestColumn != null && !fields.get(requestColumn).isBlank()) {
+            try {
+                itemDto.setRequestId(Long.parseLong(fields.get(requestColumn).trim()));
+            } catch (NumberFormatException exception) {
+                throw new ValidationException("Request id must be a number");
+            }
+        }
+        return itemDto;
+    }
+
+    /**
+     * Splits a CSV line, honouring quoted fields with doubled quotes inside. A quoted field cannot span lines.
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i++);
+            if (quoted && c == '"' && i < line.length() && line.charAt(i) == '"') {
+                field.append('"');
+                i++;
+            } else if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new ValidationException("Quoted field is not closed");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static ItemDto validate(ItemDto itemDto) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            throw new ValidationException("Name is blank");
+        }
+        if (itemDto.getName().length() > MAX_NAME) {
+            throw new ValidationException("Name is longer than " + MAX_NAME + " characters");
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            throw new ValidationException("Description is blank");
+        }
+        if (itemDto.getDescription().length() > MAX_DESCRIPTION) {
+            throw new ValidationException("Description is longer than " + MAX_DESCRIPTION + " characters");
+        }
+        if (itemDto.getAvailable() == null) {
+            throw new ValidationException("Available is not set");
+        }
+        return itemDto;
+    }
+}
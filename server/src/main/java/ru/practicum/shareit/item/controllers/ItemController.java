@@ -1,7 +1,10 @@
 package ru.practicum.shareit.item.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,11 +15,24 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.enums.ItemFormat;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.service.ItemService;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import static ru.practicum.shareit.variables.Variables.CSV;
 import static ru.practicum.shareit.variables.Variables.HEADER;
 
 @RestController
@@ -25,6 +41,7 @@ import static ru.practicum.shareit.variables.Variables.HEADER;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -54,8 +71,46 @@ public class ItemController {
         return itemService.getItemById(itemId, userId);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, CSV})
+    public ItemImportResult importItems(@RequestHeader(HEADER) long userId,
+                                        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                        InputStream body) {
+        ItemFormat format = MediaType.valueOf(CSV).includes(contentType) ? ItemFormat.CSV : ItemFormat.NDJSON;
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        return itemService.importItems(userId, format, new InputStreamReader(body, charset));
+    }
+
+    /**
+     * Writes the items of the owner as NDJSON while they are read. The content type is set once before streaming.
+     * If the export fails before the response is committed, for example for an unknown owner, the response is reset
+     * so that the usual JSON error response replaces it.
+     */
+    @GetMapping("/export")
+    public void exportItems(@RequestHeader(HEADER) long userId, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream output = new BufferedOutputStream(response.getOutputStream());
+        try {
+            itemService.exportItems(userId, item -> {
+                try {
+                    output.write(objectMapper.writeValueAsBytes(item));
+                    output.write('\n');
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            });
+        } catch (RuntimeException exception) {
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+            throw exception;
+        }
+        output.flush();
+    }
+
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestParam String text) {
-        return itemService.searchItems(text);
+    public List<ItemDto> searchItems(@RequestParam String text,
+                                     @RequestParam int from,
+                                     @RequestParam int size) {
+        return itemService.searchItems(text, from, size);
     }
 }
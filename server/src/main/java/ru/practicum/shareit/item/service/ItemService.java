@@ -1,9 +1,13 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.enums.ItemFormat;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 
+import java.io.Reader;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemDto createItem(long userId, ItemDto itemDto);
@@ -14,9 +18,13 @@ public interface ItemService {
 
     List<ItemDto> getItemsByUser(long userId);
 
-    List<ItemDto> searchItems(String text);
+    List<ItemDto> searchItems(String text, int from, int size);
 
     CommentDto createComment(long userId, long itemId, CommentDto commentDto);
 
     boolean isItemAvailable(long itemId);
+
+    ItemImportResult importItems(long userId, ItemFormat format, Reader reader);
+
+    void exportItems(long userId, Consumer<ItemDto> consumer);
 }
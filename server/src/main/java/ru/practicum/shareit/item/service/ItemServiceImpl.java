@@ -7,17 +7,21 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.component.BookingTimeline;
 import ru.practicum.shareit.booking.dto.LastNextBookingDto;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.booking.dto.TimelineEntry;
+import ru.practicum.shareit.enums.ItemFormat;
 import ru.practicum.shareit.exceptions.NoSuchItem;
 import ru.practicum.shareit.exceptions.NoSuchUser;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.exceptions.WrongUser;
 import ru.practicum.shareit.item.CommentRepository;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.component.ItemSearchIndex;
+import ru.practicum.shareit.item.component.ItemTransfer;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.CommentMapper;
 import ru.practicum.shareit.item.model.Item;
@@ -25,11 +29,13 @@ import ru.practicum.shareit.item.model.ItemMapper;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.Reader;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -45,10 +51,14 @@ public class ItemServiceImpl implements ItemService {
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingTimeline bookingTimeline;
+    private final ItemTransfer itemTransfer;
 
     @Autowired
     public ItemServiceImpl(ItemMapper itemMapper, CommentMapper commentMapper, UserService userService, ItemRepository itemRepository,
-                           CommentRepository commentRepository, BookingRepository bookingRepository, UserRepository userRepository) {
+                           CommentRepository commentRepository, BookingRepository bookingRepository, UserRepository userRepository,
+                           ItemSearchIndex itemSearchIndex, BookingTimeline bookingTimeline, ItemTransfer itemTransfer) {
         this.itemMapper = itemMapper;
         this.commentMapper = commentMapper;
         this.userService = userService;
@@ -56,6 +66,9 @@ public class ItemServiceImpl implements ItemService {
         this.commentRepository = commentRepository;
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
+        this.itemSearchIndex = itemSearchIndex;
+        this.bookingTimeline = bookingTimeline;
+        this.itemTransfer = itemTransfer;
     }
 
     public ItemDto createItem(long userId, ItemDto itemDto) {
@@ -70,6 +83,7 @@ public class ItemServiceImpl implements ItemService {
         Item item = itemMapper.toItem(itemDto);
         item.setOwner(userId);
         itemRepository.save(item);
+        itemSearchIndex.index(item);
         log.info("Item {} was created", item);
         return itemMapper.toItemDto(item);
     }
@@ -95,6 +109,7 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(itemUpdate.getAvailable());
         }
         itemRepository.save(item);
+        itemSearchIndex.index(item);
         log.info("Item {} was updated", item);
         return itemMapper.toItemDto(item);
     }
@@ -108,20 +123,12 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getOwner() != userId) {
             return itemDto;
         }
-        List<Booking> bookings = bookingRepository.findFirstByItemIdAndStartBeforeAndStatusIsNotOrderByEndDesc(itemId,
-                LocalDateTime.now(), Status.REJECTED);
-        log.info("Found {} last bookings at {}", bookings.size(), LocalDateTime.now());
-        if (!bookings.isEmpty()) {
-            LastNextBookingDto bookingDto = getLastNextBookingDto(bookings);
-            itemDto.setLastBooking(bookingDto);
-        }
-        bookings = bookingRepository.findFirstByItemIdAndStartAfterAndStatusIsNotOrderByEndAsc(itemId,
-                LocalDateTime.now(), Status.REJECTED);
-        log.info("Found {} next bookings at {}", bookings.size(), LocalDateTime.now());
-        if (!bookings.isEmpty()) {
-            LastNextBookingDto bookingDto = getLastNextBookingDto(bookings);
-            itemDto.setNextBooking(bookingDto);
-        }
+        LocalDateTime now = LocalDateTime.now();
+        bookingTimeline.findLast(itemId, now)
+                .ifPresent(booking -> itemDto.setLastBooking(getLastNextBookingDto(booking)));
+        bookingTimeline.findNext(itemId, now)
+                .ifPresent(booking -> itemDto.setNextBooking(getLastNextBookingDto(booking)));
+        log.info("Last and next bookings of item {} were looked up at {}", itemId, now);
         return itemDto;
     }
 
@@ -130,36 +137,33 @@ public class ItemServiceImpl implements ItemService {
 
         List<ItemDto> itemsDto = itemRepository.findAllByOwnerIsOrderById(userId).stream()
                 .map(itemMapper::toItemDto).collect(Collectors.toList());
-        itemsDto.forEach(itemDto -> itemDto
-                        .setComments(commentRepository.findAllByItemId(itemDto.getId()).stream()
-                                .map(commentMapper::toCommentDto).collect(Collectors.toList())));
+        if (itemsDto.isEmpty()) {
+            return itemsDto;
+        }
+        List<Long> itemIds = itemsDto.stream().map(ItemDto::getId).collect(Collectors.toList());
+        Map<Long, List<CommentDto>> comments = commentRepository.findAllByItemIdIn(itemIds).stream()
+                .map(commentMapper::toCommentDto)
+                .collect(Collectors.groupingBy(CommentDto::getItemId));
+        LocalDateTime now = LocalDateTime.now();
+        log.info("Current time is {}, looking up last and next bookings for {} items", now, itemsDto.size());
+
         itemsDto.forEach(itemDto -> {
-            List<Booking> bookings = bookingRepository.findFirstByItemIdAndStartBeforeAndStatusIsNotOrderByEndDesc(itemDto.getId(),
-                    LocalDateTime.now(), Status.REJECTED);
-            log.info("Current time is {}, bookings.size is {}", LocalDateTime.now(), bookings.size());
-            if (!bookings.isEmpty()) {
-                LastNextBookingDto bookingDto = getLastNextBookingDto(bookings);
-                itemDto.setLastBooking(bookingDto);
-            }
-            bookings = bookingRepository.findFirstByItemIdAndStartAfterAndStatusIsNotOrderByEndAsc(itemDto.getId(),
-                    LocalDateTime.now(), Status.REJECTED);
-            log.info("Current time is {}, bookings.size is {}", LocalDateTime.now(), bookings.size());
-            if (!bookings.isEmpty()) {
-                LastNextBookingDto bookingDto = getLastNextBookingDto(bookings);
-                itemDto.setNextBooking(bookingDto);
-            }
+            itemDto.setComments(comments.getOrDefault(itemDto.getId(), new ArrayList<>()));
+            bookingTimeline.findLast(itemDto.getId(), now)
+                    .ifPresent(booking -> itemDto.setLastBooking(getLastNextBookingDto(booking)));
+            bookingTimeline.findNext(itemDto.getId(), now)
+                    .ifPresent(booking -> itemDto.setNextBooking(getLastNextBookingDto(booking)));
         });
         return itemsDto;
     }
 
-    public List<ItemDto> searchItems(String text) {
+    public List<ItemDto> searchItems(String text, int from, int size) {
         if (text.isBlank()) {
             log.info("Empty search string");
             return new ArrayList<>();
         }
-        log.info("Items were retrieved for the search text {}", text);
-        return itemRepository.search(text).stream()
-                .filter(Item::getAvailable)
+        log.info("Items were retrieved for the search text {}, from={}, size={}", text, from, size);
+        return itemSearchIndex.search(text, from, size).stream()
                 .map(itemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
@@ -170,7 +174,7 @@ public class ItemServiceImpl implements ItemService {
         if (comment.getText().isBlank()) {
             throw new ValidationException("Text cannot be empty");
         }
-        if (bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(userId, LocalDateTime.now()).isEmpty()) {
+        if (!bookingRepository.existsByBookerIdAndEndBefore(userId, LocalDateTime.now())) {
             throw new ValidationException("User doesn't have any bookings to write comments");
         }
 
@@ -187,10 +191,26 @@ public class ItemServiceImpl implements ItemService {
         return item.getAvailable();
     }
 
-    private LastNextBookingDto getLastNextBookingDto(List<Booking> bookings) {
+    public ItemImportResult importItems(long userId, ItemFormat format, Reader reader) {
+        if (!userService.checkUserExists(userId)) {
+            log.error("User {} was not found", userId);
+            throw new NoSuchUser("No such user");
+        }
+        return itemTransfer.importItems(userId, format, reader);
+    }
+
+    public void exportItems(long userId, Consumer<ItemDto> consumer) {
+        if (!userService.checkUserExists(userId)) {
+            log.error("User {} was not found", userId);
+            throw new NoSuchUser("No such user");
+        }
+        itemTransfer.exportItems(userId, consumer);
+    }
+
+    private LastNextBookingDto getLastNextBookingDto(TimelineEntry booking) {
         return LastNextBookingDto.builder()
-                .id(bookings.get(0).getId())
-                .bookerId(bookings.get(0).getBooker().getId())
+                .id(booking.getId())
+                .bookerId(booking.getBookerId())
                 .build();
     }
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares on a handler method that the request works through a set in a loop on purpose, so each statement may
+ * run up to {@link #value()} more times than the similar statements threshold. The expectation is applied to the
+ * request scope by {@link SimilarStatementsInterceptor} before the handler runs.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExpectSimilarStatements {
+    int value();
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+import net.ttddyy.dsproxy.listener.logging.QueryLogEntryCreator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.enums.DetectionMode;
+import ru.practicum.shareit.exceptions.TooManySimilarStatements;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Listens to the proxied data source. Every executed statement is timed by type, added to the open
+ * {@link QueryScope}s and, when slower than the threshold, logged with its bind parameters; every row read
+ * from a result set is added to the open scopes as well. In the {@code FAIL} mode a statement that exceeds the
+ * similar statements threshold of its request throws right where it was run, so the stack trace points at the
+ * loop that runs it. The calls of a sequence made by the id generators are never counted as similar: a pooled
+ * generator runs one per allocation, however many rows are inserted.
+ */
+@Component
+@Slf4j
+public class QueryMetricsListener implements QueryExecutionListener, MethodExecutionListener {
+    private static final Pattern SEQUENCE_CALL = Pattern.compile("\\bnextval\\s*\\(|\\bnext\\s+value\\s+for\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private final MeterRegistry registry;
+    private final QueryMetricsProperties properties;
+    private final QueryLogEntryCreator logEntryCreator = new DefaultQueryLogEntryCreator();
+
+    /**
+     * The registry is resolved on first use: it binds the pool metrics of the data source this listener is
+     * part of.
+     */
+    @Autowired
+    public QueryMetricsListener(@Lazy MeterRegistry registry, QueryMetricsProperties properties) {
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        boolean similar = !execInfo.isBatch() && !SEQUENCE_CALL.matcher(sql).find();
+        int runs = QueryScope.statement(sql, similar, elapsed);
+        String type = sql.isEmpty() ? "other" : QueryUtils.getQueryType(sql).name().toLowerCase(Locale.ROOT);
+        Timer.builder("jdbc.statements")
+                .description("Execution time of the JDBC statements, a batch counts as one statement")
+                .tag("type", type)
+                .tag("batch", String.valueOf(execInfo.isBatch()))
+                .tag("success", String.valueOf(execInfo.isSuccess()))
+                .register(registry)
+                .record(elapsed, TimeUnit.MILLISECONDS);
+        if (elapsed >= properties.getSlowQueryThreshold().toMillis()) {
+            log.warn("Slow query: {}", logEntryCreator.getLogEntry(execInfo, queryInfoList, false, false, false));
+        }
+        if (properties.getSimilarStatementsMode() == DetectionMode.FAIL
+                && runs > properties.getSimilarStatementsThreshold()) {
+            int allowed = QueryScope.allowedSimilarStatements(properties.getSimilarStatementsThreshold());
+            if (runs > allowed) {
+                throw new TooManySimilarStatements("The statement ran " + runs + " times, more than " + allowed
+                        + " allowed: " + sql);
+            }
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            QueryScope.row();
+        }
+    }
+}
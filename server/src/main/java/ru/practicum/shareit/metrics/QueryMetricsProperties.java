@@ -0,0 +1,25 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.enums.DetectionMode;
+
+import java.time.Duration;
+
+/**
+ * Settings of the JDBC statement metrics. A statement that runs at least {@code slowQueryThreshold} is logged
+ * with its bind parameters. An HTTP request that runs the same statement more than
+ * {@code similarStatementsThreshold} times, usually a lazy association loaded in a loop, is logged or failed
+ * according to {@code similarStatementsMode}.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "shareit.jdbc")
+public class QueryMetricsProperties {
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+    private DetectionMode similarStatementsMode = DetectionMode.WARN;
+    private int similarStatementsThreshold = 10;
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the statements, their execution time and the rows read by the current thread between opening and
+ * closing the scope. Scopes nest: a statement run inside a repository call is counted by the scope of the
+ * call and by the scope of the HTTP request around it. A tracked scope also counts the runs of every SQL text,
+ * so statements that differ only in their bind parameters are counted together. A handler that works through a set
+ * in a loop on purpose, such as a bulk endpoint, declares how many more runs to expect with
+ * {@link ExpectSimilarStatements}.
+ */
+public class QueryScope implements AutoCloseable {
+    private static final ThreadLocal<QueryScope> CURRENT = new ThreadLocal<>();
+
+    private final QueryScope parent;
+    private final Map<String, Integer> similarStatements;
+    private long statements;
+    private long elapsedMillis;
+    private long rows;
+    private int expectedSimilarStatements;
+
+    private QueryScope(QueryScope parent, boolean tracked) {
+        this.parent = parent;
+        this.similarStatements = tracked ? new HashMap<>() : null;
+    }
+
+    public static QueryScope open() {
+        return open(false);
+    }
+
+    public static QueryScope openTracked() {
+        return open(true);
+    }
+
+    private static QueryScope open(boolean tracked) {
+        QueryScope scope = new QueryScope(CURRENT.get(), tracked);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Lets every open tracked scope run each statement {@code runs} more times than the threshold before the
+     * statement counts as repeated.
+     */
+    static void expectSimilarStatements(int runs) {
+        for (QueryScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            if (scope.similarStatements != null) {
+                scope.expectedSimilarStatements += runs;
+            }
+        }
+    }
+
+    /**
+     * Returns how many runs of a statement the innermost tracked scope allows: the threshold plus the runs it
+     * was told to expect.
+     */
+    static int allowedSimilarStatements(int threshold) {
+        for (QueryScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            if (scope.similarStatements != null) {
+                return scope.getAllowedSimilarStatements(threshold);
+            }
+        }
+        return threshold;
+    }
+
+    /**
+     * Adds a statement to the open scopes and returns how many times the innermost tracked scope has run it,
+     * or zero when no tracked scope is open. A statement that is not {@code similar}, such as a batch, is
+     * counted as a statement but not as a similar one.
+     */
+    static int statement(String sql, boolean similar, long elapsedMillis) {
+        int runs = 0;
+        for (QueryScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.statements++;
+            scope.elapsedMillis += elapsedMillis;
+            if (scope.similarStatements != null && similar) {
+                int count = scope.similarStatements.merge(sql, 1, Integer::sum);
+                runs = runs == 0 ? count : runs;
+            }
+        }
+        return runs;
+    }
+
+    static void row() {
+        for (QueryScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.rows++;
+        }
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of runs by SQL text; empty unless the scope is tracked.
+     */
+    public Map<String, Integer> getSimilarStatements() {
+        return similarStatements == null ? Map.of() : Collections.unmodifiableMap(similarStatements);
+    }
+
+    public int getAllowedSimilarStatements(int threshold) {
+        return threshold + expectedSimilarStatements;
+    }
+
+    @Override
+    public void close() {
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every call of a Spring Data repository and records the statements it ran and the rows it read,
+ * tagged by the repository interface and the method. The rows of a method returning a stream are read after
+ * the call returns, so they are only counted for the HTTP request.
+ */
+@Aspect
+@Component
+public class RepositoryMetrics {
+    private final MeterRegistry registry;
+    private static final Map<Class<?>, String> NAMES = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RepositoryMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        Tags tags = Tags.of("repository", repositoryName(joinPoint.getTarget().getClass()),
+                "method", joinPoint.getSignature().getName());
+        String exception = "none";
+        long start = System.nanoTime();
+        QueryScope scope = QueryScope.open();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable throwable) {
+            exception = throwable.getClass().getSimpleName();
+            throw throwable;
+        } finally {
+            scope.close();
+            Timer.builder("repository.invocations")
+                    .tags(tags)
+                    .tag("exception", exception)
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            DistributionSummary.builder("repository.statements").tags(tags).register(registry)
+                    .record(scope.getStatements());
+            DistributionSummary.builder("repository.rows").tags(tags).register(registry)
+                    .record(scope.getRows());
+        }
+    }
+
+    /**
+     * Returns the simple name of the application interface a repository proxy implements.
+     */
+    public static String repositoryName(Class<?> type) {
+        return NAMES.computeIfAbsent(type, key -> Arrays.stream(key.getInterfaces())
+                .filter(Repository.class::isAssignableFrom)
+                .filter(repository -> !repository.getName().startsWith("org.springframework."))
+                .map(Class::getSimpleName)
+                .findFirst()
+                .orElse(key.getSimpleName()));
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.enums.DetectionMode;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Records the statements run and the rows read while handling an HTTP request, tagged like the
+ * {@code http.server.requests} timer by method and route. Unless the similar statements detection is off, the
+ * request also counts the runs of every statement and logs the ones that ran more often than the threshold.
+ */
+@Component
+@Slf4j
+public class RequestQueryMetrics extends OncePerRequestFilter {
+    private final MeterRegistry registry;
+    private final QueryMetricsProperties properties;
+
+    @Autowired
+    public RequestQueryMetrics(MeterRegistry registry, QueryMetricsProperties properties) {
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryScope scope = properties.getSimilarStatementsMode() == DetectionMode.OFF ? QueryScope.open()
+                : QueryScope.openTracked();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Tags tags = Tags.of("method", request.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+            DistributionSummary.builder("request.statements").tags(tags).register(registry)
+                    .record(scope.getStatements());
+            DistributionSummary.builder("request.rows").tags(tags).register(registry).record(scope.getRows());
+            log.debug("{} {} ran {} statements in {} ms and read {} rows", request.getMethod(),
+                    request.getRequestURI(), scope.getStatements(), scope.getElapsedMillis(), scope.getRows());
+            int allowed = scope.getAllowedSimilarStatements(properties.getSimilarStatementsThreshold());
+            scope.getSimilarStatements().forEach((sql, runs) -> {
+                if (runs > allowed) {
+                    log.warn("{} {} ran a statement {} times: {}", request.getMethod(), request.getRequestURI(),
+                            runs, sql);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Raises the similar statements limit of the request scope opened by {@link RequestQueryMetrics} for the handlers
+ * annotated with {@link ExpectSimilarStatements}, so the services never touch the scope themselves.
+ */
+public class SimilarStatementsInterceptor implements HandlerInterceptor {
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            ExpectSimilarStatements expected = ((HandlerMethod) handler)
+                    .getMethodAnnotation(ExpectSimilarStatements.class);
+            if (expected != null) {
+                QueryScope.expectSimilarStatements(expected.value());
+            }
+        }
+        return true;
+    }
+}
@@ -1,7 +1,6 @@
 package ru.practicum.shareit.request.controllers;
 
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,6 +10,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -41,7 +41,7 @@ public class ItemRequestController {
     public List<ItemRequestDto> getAllRequests(@RequestHeader(HEADER) long userId,
                                                @RequestParam int from,
                                                @RequestParam int size) {
-        Pageable page = PageRequest.of(from / size, size);
+        Pageable page = OffsetPageRequest.of(from, size);
         return itemRequestService.getAllRequests(userId, page);
     }
 
@@ -7,6 +7,7 @@ import ru.practicum.shareit.exceptions.NoSuchRequest;
 import ru.practicum.shareit.exceptions.NoSuchUser;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.ItemMapper;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -14,7 +15,9 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.model.ItemRequestMapper;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -46,9 +49,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         List<ItemRequestDto> requests = itemRequestRepository.findAllByRequestorIs(userId).stream()
                 .map(itemRequestMapper::toRequestDto)
                 .collect(Collectors.toList());
-        requests.forEach(itemRequestDto -> itemRequestDto.setItems(itemRepository.findItemsByRequestIdIs(itemRequestDto.getId())
-                        .stream().map(itemMapper::toItemDto)
-                        .collect(Collectors.toList())));
+        setItems(requests);
         return requests;
     }
 
@@ -57,10 +58,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         List<ItemRequestDto> requests = itemRequestRepository.findAllByRequestorIsNot(userId, page).stream()
                 .map(itemRequestMapper::toRequestDto)
                 .collect(Collectors.toList());
-        requests.forEach(itemRequestDto -> itemRequestDto.setItems(itemRepository.findItemsByRequestIdIs(itemRequestDto.getId())
-                .stream()
-                .map(itemMapper::toItemDto)
-                .collect(Collectors.toList())));
+        setItems(requests);
         return requests;
     }
 
@@ -70,10 +68,18 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         }
         ItemRequestDto request = itemRequestMapper.toRequestDto(itemRequestRepository
                 .findById(requestId).orElseThrow(() -> new NoSuchRequest("This request was not found")));
-        request.setItems(itemRepository.findItemsByRequestIdIs(request.getId())
-                .stream()
-                .map(itemMapper::toItemDto)
-                .collect(Collectors.toList()));
+        setItems(List.of(request));
         return request;
     }
+
+    private void setItems(List<ItemRequestDto> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        List<Long> requestIds = requests.stream().map(ItemRequestDto::getId).collect(Collectors.toList());
+        Map<Long, List<ItemDto>> items = itemRepository.findItemsByRequestIdIn(requestIds).stream()
+                .map(itemMapper::toItemDto)
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
+        requests.forEach(request -> request.setItems(items.getOrDefault(request.getId(), new ArrayList<>())));
+    }
 }
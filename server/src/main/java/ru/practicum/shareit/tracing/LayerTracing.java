@@ -0,0 +1,48 @@
+package ru.practicum.shareit.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.metrics.RepositoryMetrics;
+
+/**
+ * Opens a span for every call of a service and of a Spring Data repository, named after the class and the
+ * method, so a trace shows the layers between the HTTP span of the controller and the JDBC spans.
+ */
+@Aspect
+@Component
+public class LayerTracing {
+    private final Tracer tracer;
+
+    @Autowired
+    public LayerTracing(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("within(@org.springframework.stereotype.Service *)")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "service", joinPoint.getTarget().getClass().getSimpleName());
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "repository", RepositoryMetrics.repositoryName(joinPoint.getTarget().getClass()));
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, String layer, String type) throws Throwable {
+        Span span = tracer.nextSpan().name(type + "." + joinPoint.getSignature().getName()).tag("layer", layer)
+                .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable throwable) {
+            span.error(throwable);
+            throw throwable;
+        } finally {
+            span.end();
+        }
+    }
+}
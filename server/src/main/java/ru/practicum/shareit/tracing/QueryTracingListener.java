@@ -0,0 +1,55 @@
+package ru.practicum.shareit.tracing;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Listens to the proxied data source and wraps every statement in a span of the current trace, tagged with its
+ * SQL. A batch is one span tagged with the number of its parameter sets.
+ */
+@Component
+public class QueryTracingListener implements QueryExecutionListener {
+    private static final String SPAN = QueryTracingListener.class.getName();
+
+    private final Tracer tracer;
+
+    @Autowired
+    public QueryTracingListener(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        Span span = tracer.nextSpan()
+                .name(sql.isEmpty() ? "jdbc" : QueryUtils.getQueryType(sql).name().toLowerCase(Locale.ROOT))
+                .remoteServiceName("shareit-db")
+                .tag("jdbc.query", sql)
+                .start();
+        if (execInfo.isBatch()) {
+            span.tag("jdbc.batch-size", String.valueOf(execInfo.getBatchSize()));
+        }
+        execInfo.addCustomValue(SPAN, span);
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Span span = execInfo.getCustomValue(SPAN, Span.class);
+        if (span == null) {
+            return;
+        }
+        if (execInfo.getThrowable() != null) {
+            span.error(execInfo.getThrowable());
+        }
+        span.end();
+    }
+}
@@ -2,5 +2,7 @@ package ru.practicum.shareit.variables;
 
 public class Variables {
     public static final String HEADER = "X-Sharer-User-Id";
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
+    public static final String CSV = "text/csv";
     public static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss";
 }
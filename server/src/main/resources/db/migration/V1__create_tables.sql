@@ -1,10 +1,3 @@
-DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS items CASCADE;
-DROP TABLE IF EXISTS bookings CASCADE;
-DROP TABLE IF EXISTS requests CASCADE;
-DROP TABLE IF EXISTS comments CASCADE;
-
-
 CREATE TABLE IF NOT EXISTS users (
                                      id bigint generated by default as identity primary key,
                                      name varchar(255),
@@ -55,4 +48,4 @@ ALTER TABLE comments ADD FOREIGN KEY (author_id) REFERENCES users (id);
 
 ALTER TABLE comments ADD FOREIGN KEY (item_id) REFERENCES items (id);
 
-ALTER TABLE items ADD FOREIGN KEY (owner_id) REFERENCES users (id);
\ No newline at end of file
+ALTER TABLE items ADD FOREIGN KEY (owner_id) REFERENCES users (id);
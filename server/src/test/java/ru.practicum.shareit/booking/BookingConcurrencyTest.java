@@ -0,0 +1,134 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.BookingOverlap;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+class BookingConcurrencyTest {
+    private static final int THREADS = 8;
+
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService service;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<Long> itemIds = new ArrayList<>();
+    private long bookerId;
+    private long ownerId;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void initTest() {
+        ownerId = createUser("concurrency-owner@mail.com");
+        bookerId = createUser("concurrency-booker@mail.com");
+        start = LocalDateTime.now().plusDays(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll(bookingRepository.findAll().stream()
+                .filter(booking -> itemIds.contains(booking.getItem().getId()))
+                .collect(Collectors.toList()));
+        itemRepository.deleteAllById(itemIds);
+        userRepository.deleteAllById(userIds);
+    }
+
+    @Test
+    void testOneWinnerForSameItem() throws Exception {
+        long itemId = createItem();
+
+        List<Object> results = race(i -> booking(itemId, start.plusHours(i), start.plusDays(1)));
+
+        assertEquals(1, results.stream().filter(BookingDto.class::isInstance).count());
+        results.stream().filter(result -> !(result instanceof BookingDto))
+                .forEach(result -> assertInstanceOf(BookingOverlap.class, result));
+    }
+
+    @Test
+    void testAllWinForDifferentItems() throws Exception {
+        List<Long> items = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            items.add(createItem());
+        }
+
+        List<Object> results = race(i -> booking(items.get(i), start, start.plusDays(1)));
+
+        assertEquals(THREADS, results.stream().filter(BookingDto.class::isInstance).count());
+    }
+
+    private List<Object> race(IntFunction<BookingDto> factory) throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch gate = new CountDownLatch(1);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                BookingDto booking = factory.apply(i);
+                Callable<Object> task = () -> {
+                    gate.await();
+                    try {
+                        return service.createBooking(bookerId, booking);
+                    } catch (RuntimeException exception) {
+                        return exception;
+                    }
+                };
+                futures.add(executor.submit(task));
+            }
+            gate.countDown();
+            List<Object> results = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private BookingDto booking(long itemId, LocalDateTime start, LocalDateTime end) {
+        return BookingDto.builder().itemId(itemId).start(start).end(end).build();
+    }
+
+    private long createUser(String email) {
+        long id = userService.createUser(UserDto.builder().name("user").email(email).build()).getId();
+        userIds.add(id);
+        return id;
+    }
+
+    private long createItem() {
+        ItemDto item = ItemDto.builder().name("Палатка").description("Палатка для похода").available(true).build();
+        long id = itemService.createItem(ownerId, item).getId();
+        itemIds.add(id);
+        return id;
+    }
+}
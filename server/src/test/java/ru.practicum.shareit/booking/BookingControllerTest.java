@@ -8,26 +8,40 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.component.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.enums.Role;
 import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.exceptions.NoSuchUser;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.variables.Variables.HEADER;
+import static ru.practicum.shareit.variables.Variables.NEXT_CURSOR;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -56,7 +70,7 @@ class BookingControllerTest {
         bookingToCreate = BookingDto.builder().id(bookingId)
                 .start(LocalDateTime.now().minusDays(1)).end(LocalDateTime.now().plusDays(1))
                 .item(item).booker(user).status(Status.APPROVED).build();
-        page = PageRequest.of(0, 20);
+        page = OffsetPageRequest.of(0, 20);
     }
 
     @Test
@@ -93,6 +107,25 @@ class BookingControllerTest {
         assertEquals(objectMapper.writeValueAsString(bookingToUpdate), response);
     }
 
+    @Test
+    @SneakyThrows
+    void updateBookings() {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(bookingId, true),
+                new BookingDecisionDto(2, false));
+        List<BookingDecisionResult> results = List.of(
+                BookingDecisionResult.builder().bookingId(bookingId).booking(bookingToCreate).build(),
+                BookingDecisionResult.builder().bookingId(2).error("Booking was not found").build());
+        when(bookingService.updateBookings(userId, decisions)).thenReturn(results);
+
+        String response = mockMvc.perform(patch("/bookings").header(HEADER, userId)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(decisions)))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+
+        verify(bookingService).updateBookings(userId, decisions);
+        assertEquals(objectMapper.writeValueAsString(results), response);
+    }
+
     @Test
     @SneakyThrows
     void getBookingById() {
@@ -143,4 +176,111 @@ class BookingControllerTest {
         verify(bookingService).getBookingsByItemsOfUser(userId, "ALL", page);
         assertEquals(objectMapper.writeValueAsString(List.of(bookingToCreate)), response);
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void getBookingsByUserWithCursor() {
+        BookingDto bookingToCreate = BookingDto.builder().id(bookingId)
+                .start(LocalDateTime.of(2023, 1, 1, 10, 0)).end(LocalDateTime.of(2023, 1, 2, 10, 0))
+                .item(item).booker(user).status(Status.APPROVED).build();
+        when(bookingService.getBookingsByUser(userId, "ALL", BookingCursor.FIRST, 1))
+                .thenReturn(List.of(bookingToCreate));
+
+        mockMvc.perform(get("/bookings?state=ALL&size=1&cursor=").header(HEADER, userId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR,
+                        new BookingCursor(bookingToCreate.getStart(), bookingToCreate.getEnd(), bookingId).encode()));
+
+        verify(bookingService).getBookingsByUser(userId, "ALL", BookingCursor.FIRST, 1);
+    }
+
+    @Test
+    @SneakyThrows
+    void getBookingsByItemsOfUserLastCursorPage() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2023, 1, 1, 10, 0), LocalDateTime.of(2023, 1, 2, 10, 0), 5);
+        when(bookingService.getBookingsByItemsOfUser(userId, "ALL", cursor, 20)).thenReturn(List.of());
+
+        mockMvc.perform(get("/bookings/owner?state=ALL&size=20&cursor=" + cursor.encode())
+                        .header(HEADER, userId))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(NEXT_CURSOR));
+    }
+
+    @Test
+    @SneakyThrows
+    void getBookingsByUserInvalidCursor() {
+        mockMvc.perform(get("/bookings?state=ALL&size=20&cursor=invalid").header(HEADER, userId))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @SneakyThrows
+    void getBookingsByUserZeroSizeWithCursor() {
+        mockMvc.perform(get("/bookings?state=ALL&size=0&cursor=").header(HEADER, userId))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/bookings/owner?state=ALL&size=0&cursor=").header(HEADER, userId))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    @SneakyThrows
+    void getBookingsByUserOffsetWithCursor() {
+        mockMvc.perform(get("/bookings?state=ALL&from=20&size=20&cursor=").header(HEADER, userId))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/bookings/owner?state=ALL&from=0&size=20&cursor=").header(HEADER, userId))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/bookings?state=ALL&size=20").header(HEADER, userId))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    @SneakyThrows
+    void getBookingsByUserInvalidPage() {
+        mockMvc.perform(get("/bookings?state=ALL&from=0&size=0").header(HEADER, userId))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/bookings/owner?state=ALL&from=-1&size=10").header(HEADER, userId))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    void exportBookings() {
+        doAnswer(invocation -> {
+            Consumer<BookingDto> consumer = invocation.getArgument(2);
+            consumer.accept(bookingToCreate);
+            consumer.accept(bookingToCreate);
+            return null;
+        }).when(bookingService).exportBookings(eq(userId), eq(Role.BOOKER), any(Consumer.class));
+
+        String response = mockMvc.perform(get("/bookings/export").header(HEADER, userId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/json"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(List.of(bookingToCreate, bookingToCreate)), response);
+    }
+
+    @Test
+    @SneakyThrows
+    void exportBookingsByItemsOfUserEmpty() {
+        mockMvc.perform(get("/bookings/owner/export").header(HEADER, userId))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    void exportBookingsNoUser() {
+        doThrow(new NoSuchUser("No such user"))
+                .when(bookingService).exportBookings(eq(userId), eq(Role.BOOKER), any(Consumer.class));
+
+        mockMvc.perform(get("/bookings/export").header(HEADER, userId))
+                .andExpect(status().isNotFound())
+                .andExpect(content().json("{\"Object not found\":\"No such user\"}"));
+    }
+}
@@ -7,19 +7,29 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.component.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.dto.TimelineEntry;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.config.PersistenceConfig;
 import ru.practicum.shareit.enums.Status;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 @Import(PersistenceConfig.class)
@@ -66,100 +76,210 @@ public class BookingRepositoryTest {
     @Test
     void testGetBookingsByUser() {
         repository.save(booking);
-        List<Booking> bookings = repository.findByBookerIdOrderByStartDesc(booking.getBooker().getId(), page);
-        assertEquals(bookings.get(0).getBooker().getId(), booker.getId());
+        List<BookingView> bookings = repository.findByBookerId(booking.getBooker().getId(), page);
+        assertEquals(bookings.get(0).getBookerId(), booker.getId());
     }
 
     @Test
     void testGetBookingsByUserAndStatus() {
         repository.save(booking);
-        List<Booking> bookings = repository.findByBookerIdAndStatusIsOrderByStartDesc(booking.getBooker().getId(),
+        List<BookingView> bookings = repository.findByBookerIdAndStatus(booking.getBooker().getId(),
                 Status.APPROVED, page);
-        assertEquals(bookings.get(0).getBooker().getId(), booker.getId());
+        assertEquals(bookings.get(0).getBookerId(), booker.getId());
     }
 
     @Test
     void testGetBookingsByUserFuture() {
         repository.save(booking);
-        List<Booking> bookings = repository.findByBookerIdAndStartAfterOrderByStartDesc(booking.getBooker().getId(),
+        List<BookingView> bookings = repository.findFutureByBookerId(booking.getBooker().getId(),
                 LocalDateTime.of(2022, 12, 19, 23, 11, 30), page);
-        assertEquals(bookings.get(0).getBooker().getId(), booker.getId());
+        assertEquals(bookings.get(0).getBookerId(), booker.getId());
     }
 
     @Test
     void testGetBookingsByUserPast() {
         repository.save(booking);
-        List<Booking> bookings = repository.findByBookerIdAndEndBeforeOrderByStartDesc(booking.getBooker().getId(),
+        List<BookingView> bookings = repository.findPastByBookerId(booking.getBooker().getId(),
                 LocalDateTime.of(2022, 12, 22, 23, 11, 30), page);
-        assertEquals(bookings.get(0).getBooker().getId(), booker.getId());
+        assertEquals(bookings.get(0).getBookerId(), booker.getId());
     }
 
     @Test
     void testGetBookingsByUserCurrent() {
         repository.save(booking);
-        List<Booking> bookings = repository
-                .findByBookerIdAndStartBeforeAndEndAfterOrderByEndDesc(booking.getBooker().getId(),
-                LocalDateTime.of(2022, 12, 20, 23, 11, 30),
-                LocalDateTime.of(2022, 12, 20, 23, 11, 30),
-                page);
-        assertEquals(bookings.get(0).getBooker().getId(), booker.getId());
+        List<BookingView> bookings = repository.findCurrentByBookerId(booking.getBooker().getId(),
+                LocalDateTime.of(2022, 12, 20, 23, 11, 30), page);
+        assertEquals(bookings.get(0).getBookerId(), booker.getId());
     }
 
     @Test
     void testGetBookingsByOwner() {
         repository.save(booking);
-        List<Booking> bookings = repository.findByItemOwnerOrderByStartDesc(booking.getItem().getOwner(), page);
-        assertEquals(bookings.get(0).getBooker().getId(), booker.getId());
+        List<BookingView> bookings = repository.findByItemOwner(booking.getItem().getOwner(), page);
+        assertEquals(bookings.get(0).getBookerId(), booker.getId());
     }
 
     @Test
     void testGetBookingsByOwnerAndStatus() {
         repository.save(booking);
-        List<Booking> bookings = repository.findByItemOwnerAndStatusIsOrderByStartDesc(booking.getItem().getOwner(),
+        List<BookingView> bookings = repository.findByItemOwnerAndStatus(booking.getItem().getOwner(),
                 Status.APPROVED, page);
-        assertEquals(bookings.get(0).getBooker().getId(), booker.getId());
+        assertEquals(bookings.get(0).getBookerId(), booker.getId());
     }
 
     @Test
     void testGetBookingsByOwnerFuture() {
         repository.save(booking);
-        List<Booking> bookings = repository.findByItemOwnerAndStartAfterOrderByStartDesc(booking.getItem().getOwner(),
+        List<BookingView> bookings = repository.findFutureByItemOwner(booking.getItem().getOwner(),
                 LocalDateTime.of(2022, 12, 19, 23, 11, 30), page);
-        assertEquals(bookings.get(0).getBooker().getId(), booker.getId());
+        assertEquals(bookings.get(0).getBookerId(), booker.getId());
     }
 
     @Test
     void testGetBookingsByOwnerPast() {
         repository.save(booking);
-        List<Booking> bookings = repository.findByItemOwnerAndEndBeforeOrderByStartDesc(booking.getItem().getOwner(),
+        List<BookingView> bookings = repository.findPastByItemOwner(booking.getItem().getOwner(),
                 LocalDateTime.of(2022, 12, 22, 23, 11, 30), page);
-        assertEquals(bookings.get(0).getBooker().getId(), booker.getId());
+        assertEquals(bookings.get(0).getBookerId(), booker.getId());
     }
 
     @Test
     void testGetBookingsByOwnerCurrent() {
         repository.save(booking);
-        List<Booking> bookings = repository
-                .findByItemOwnerAndStartBeforeAndEndAfterOrderByStartDesc(booking.getItem().getOwner(),
-                        LocalDateTime.of(2022, 12, 20, 23, 11, 30),
-                        LocalDateTime.of(2022, 12, 20, 23, 11, 30),
-                        page);
-        assertEquals(bookings.get(0).getBooker().getId(), booker.getId());
+        List<BookingView> bookings = repository.findCurrentByItemOwner(booking.getItem().getOwner(),
+                LocalDateTime.of(2022, 12, 20, 23, 11, 30), page);
+        assertEquals(bookings.get(0).getBookerId(), booker.getId());
     }
 
     @Test
-    void testGetBookingsByItemLast() {
+    void testExistsBookingsByUserPast() {
         repository.save(booking);
-        List<Booking> bookings = repository.findFirstByItemIdAndStartBeforeAndStatusIsNotOrderByEndDesc(booking.getItem().getId(),
-                LocalDateTime.of(2022, 12, 24, 23, 11, 30), Status.REJECTED);
-        assertEquals(bookings.get(0).getBooker().getId(), booker.getId());
+        assertTrue(repository.existsByBookerIdAndEndBefore(booker.getId(), LocalDateTime.of(2022, 12, 22, 23, 11, 30)));
+        assertFalse(repository.existsByBookerIdAndEndBefore(booker.getId(), LocalDateTime.of(2022, 12, 21, 11, 30, 40)));
     }
 
     @Test
-    void testGetBookingsByItemNext() {
+    void testGetTimelineSkipsRejected() {
         repository.save(booking);
-        List<Booking> bookings = repository.findFirstByItemIdAndStartAfterAndStatusIsNotOrderByEndAsc(booking.getItem().getId(),
-                LocalDateTime.of(2022, 12, 19, 23, 11, 30), Status.REJECTED);
-        assertEquals(bookings.get(0).getBooker().getId(), booker.getId());
+        Booking rejected = Booking.builder().booker(booker).item(booking.getItem()).status(Status.REJECTED)
+                .start(LocalDateTime.of(2022, 12, 25, 11, 30, 40))
+                .end(LocalDateTime.of(2022, 12, 26, 12, 30, 40)).build();
+        repository.save(rejected);
+        List<TimelineEntry> entries = repository.findTimelineAfter(Status.REJECTED, 0, page);
+        assertEquals(1, entries.size());
+        assertEquals(booking.getId(), entries.get(0).getId());
+        assertEquals(booking.getItem().getId(), entries.get(0).getItemId());
+        assertEquals(booker.getId(), entries.get(0).getBookerId());
+        assertEquals(booking.getStart(), entries.get(0).getStart());
+        assertTrue(repository.findTimelineAfter(Status.REJECTED, booking.getId(), page).isEmpty());
+    }
+
+    @Test
+    void testGetBookingViewColumns() {
+        repository.save(booking);
+        BookingView view = repository.findByItemOwner(booking.getItem().getOwner(), page).get(0);
+        assertEquals(booking.getId(), view.getId());
+        assertEquals(booking.getStart(), view.getStart());
+        assertEquals(booking.getEnd(), view.getEnd());
+        assertEquals(Status.APPROVED, view.getStatus());
+        assertEquals(booking.getItem().getId(), view.getItemId());
+        assertEquals("name", view.getItemName());
+        assertEquals("description", view.getItemDescription());
+        assertEquals(true, view.getItemAvailable());
+        assertEquals(booking.getItem().getOwner(), view.getItemOwner());
+        assertEquals("booker", view.getBookerName());
+        assertEquals("booker@mail.com", view.getBookerEmail());
+    }
+
+    @Test
+    void testGetBookingsByUserWithOffset() {
+        saveBookings(5);
+        List<BookingView> all = repository.findByBookerId(booker.getId(), OffsetPageRequest.of(0, 5));
+        List<BookingView> bookings = repository.findByBookerId(booker.getId(), OffsetPageRequest.of(1, 2));
+        assertEquals(all.subList(1, 3).stream().map(BookingView::getStart).collect(Collectors.toList()),
+                bookings.stream().map(BookingView::getStart).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testGetBookingsByUserBeforeCursor() {
+        List<Long> ids = saveBookings(5);
+        List<Long> found = new ArrayList<>();
+        BookingCursor cursor = BookingCursor.FIRST;
+        List<BookingView> bookings;
+        do {
+            bookings = repository.findByBookerIdBefore(booker.getId(), cursor.getStart(), cursor.getId(),
+                    PageRequest.of(0, 2));
+            bookings.forEach(booking -> found.add(booking.getId()));
+            if (!bookings.isEmpty()) {
+                BookingView last = bookings.get(bookings.size() - 1);
+                cursor = new BookingCursor(last.getStart(), last.getEnd(), last.getId());
+            }
+        } while (bookings.size() == 2);
+
+        Collections.reverse(ids);
+        assertEquals(ids, found);
+    }
+
+    @Test
+    void testGetBookingsByOwnerCurrentBeforeCursor() {
+        List<Long> ids = saveBookings(3);
+        Booking second = repository.findById(ids.get(1)).orElseThrow();
+        List<BookingView> bookings = repository.findCurrentByItemOwnerBefore(booking.getItem().getOwner(),
+                second.getStart(), second.getId(), LocalDateTime.of(2022, 12, 20, 23, 11, 30), page);
+        assertEquals(List.of(ids.get(0)), bookings.stream().map(BookingView::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testGetBookingsByUserCurrentSameOrderWithAndWithoutCursor() {
+        List<Long> ids = saveBookings(5);
+        LocalDateTime now = LocalDateTime.of(2022, 12, 20, 23, 11, 30);
+        List<BookingView> byOffset = repository.findCurrentByBookerId(booker.getId(), now, OffsetPageRequest.of(0, 5));
+        List<BookingView> byCursor = repository.findCurrentByBookerIdBefore(booker.getId(),
+                BookingCursor.FIRST.getEnd(), BookingCursor.FIRST.getId(), now, PageRequest.of(0, 5));
+
+        Collections.reverse(ids);
+        assertEquals(ids, byOffset.stream().map(BookingView::getId).collect(Collectors.toList()));
+        assertEquals(ids, byCursor.stream().map(BookingView::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testGetBookingsByUserCurrentOrderedByEnd() {
+        repository.save(booking);
+        Booking endsLater = repository.save(Booking.builder().booker(booker).item(booking.getItem())
+                .status(Status.APPROVED)
+                .start(booking.getStart().plusHours(1))
+                .end(booking.getEnd().plusDays(2)).build());
+        Booking endsFirst = repository.save(Booking.builder().booker(booker).item(booking.getItem())
+                .status(Status.APPROVED)
+                .start(booking.getStart().plusHours(2))
+                .end(booking.getEnd().minusHours(1)).build());
+        LocalDateTime now = LocalDateTime.of(2022, 12, 20, 23, 11, 30);
+        List<Long> expected = List.of(endsLater.getId(), booking.getId(), endsFirst.getId());
+
+        List<BookingView> byOffset = repository.findCurrentByBookerId(booker.getId(), now, OffsetPageRequest.of(0, 5));
+        List<BookingView> first = repository.findCurrentByBookerIdBefore(booker.getId(), BookingCursor.FIRST.getEnd(),
+                BookingCursor.FIRST.getId(), now, PageRequest.of(0, 2));
+        BookingView last = first.get(1);
+        List<BookingView> second = repository.findCurrentByBookerIdBefore(booker.getId(), last.getEnd(), last.getId(),
+                now, PageRequest.of(0, 2));
+
+        assertEquals(expected, byOffset.stream().map(BookingView::getId).collect(Collectors.toList()));
+        assertEquals(expected, Stream.concat(first.stream(), second.stream()).map(BookingView::getId)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Saves bookings that share the start date in pairs, so the id has to break the ties.
+     */
+    private List<Long> saveBookings(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Booking bookingToSave = Booking.builder().booker(booker)
+                    .start(booking.getStart().plusMinutes(i / 2))
+                    .end(booking.getEnd())
+                    .item(booking.getItem()).status(Status.APPROVED).build();
+            ids.add(repository.save(bookingToSave).getId());
+        }
+        return ids;
     }
 }
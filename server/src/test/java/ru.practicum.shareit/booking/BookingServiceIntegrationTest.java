@@ -1,25 +1,38 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.component.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.enums.Role;
 import ru.practicum.shareit.enums.Status;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemMapper;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.model.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -72,6 +85,103 @@ public class BookingServiceIntegrationTest {
         assertChecks(bookingToCheck);
     }
 
+    @Test
+    void testBookingPagesQueryCount() {
+        User owner = persistUser("page-owner");
+        User mainBooker = persistUser("page-booker");
+        em.flush();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 100; i++) {
+            Item item = Item.builder().name("Item " + i).description("Item " + i).available(true)
+                    .owner(owner.getId()).build();
+            em.persist(item);
+            User booker = persistUser("page-booker-" + i);
+            em.persist(Booking.builder().item(item).booker(booker).start(start.plusHours(i))
+                    .end(start.plusHours(i + 1)).status(Status.WAITING).build());
+            em.persist(Booking.builder().item(item).booker(mainBooker).start(start.plusDays(i))
+                    .end(start.plusDays(i + 1)).status(Status.WAITING).build());
+        }
+        em.flush();
+
+        assertThat(countStatements(() -> assertThat(service.getBookingsByUser(mainBooker.getId(), "ALL",
+                PageRequest.of(0, 100)).size(), equalTo(100))), equalTo(1L));
+        assertThat(countStatements(() -> assertThat(service.getBookingsByItemsOfUser(owner.getId(), "ALL",
+                PageRequest.of(0, 100)).size(), equalTo(100))), equalTo(1L));
+        assertThat(countStatements(() -> assertThat(service.getBookingsByUser(mainBooker.getId(), "FUTURE",
+                BookingCursor.FIRST, 100).size(), equalTo(100))), equalTo(1L));
+        assertThat(countStatements(() -> assertThat(service.getBookingsByItemsOfUser(owner.getId(), "WAITING",
+                BookingCursor.FIRST, 100).size(), equalTo(100))), equalTo(1L));
+    }
+
+    @Test
+    void testUpdateBookingsInOneBatch() {
+        User owner = persistUser("bulk-owner");
+        User bulkBooker = persistUser("bulk-booker");
+        em.flush();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDecisionDto> decisions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Item item = Item.builder().name("Item " + i).description("Item " + i).available(true)
+                    .owner(owner.getId()).build();
+            em.persist(item);
+            Booking waiting = Booking.builder().item(item).booker(bulkBooker).start(start).end(start.plusDays(1))
+                    .status(Status.WAITING).build();
+            em.persist(waiting);
+            decisions.add(new BookingDecisionDto(waiting.getId(), i % 2 == 0));
+        }
+        em.flush();
+
+        assertThat(countStatements(() -> {
+            service.updateBookings(owner.getId(), decisions);
+            em.flush();
+        }), equalTo(2L));
+        em.clear();
+        for (int i = 0; i < decisions.size(); i++) {
+            assertThat(em.find(Booking.class, decisions.get(i).getBookingId()).getStatus(),
+                    equalTo(i % 2 == 0 ? Status.APPROVED : Status.REJECTED));
+        }
+    }
+
+    @Test
+    void testExportBookingsKeepsContextEmpty() {
+        User owner = persistUser("export-owner");
+        User exportBooker = persistUser("export-booker");
+        em.flush();
+        Item item = Item.builder().name("name").description("description").available(true)
+                .owner(owner.getId()).build();
+        em.persist(item);
+        LocalDateTime start = LocalDateTime.now().minusYears(1);
+        for (int i = 0; i < 1200; i++) {
+            em.persist(Booking.builder().item(item).booker(exportBooker).start(start.plusHours(i))
+                    .end(start.plusHours(i + 1)).status(Status.APPROVED).build());
+        }
+        em.flush();
+
+        AtomicLong exported = new AtomicLong();
+        AtomicLong previous = new AtomicLong(Long.MAX_VALUE);
+        assertThat(countStatements(() -> service.exportBookings(exportBooker.getId(), Role.BOOKER, booking -> {
+            assertThat(booking.getId() < previous.getAndSet(booking.getId()), equalTo(true));
+            exported.incrementAndGet();
+        })), equalTo(1L + 1200 / BookingServiceImpl.EXPORT_PAGE + 1));
+        assertThat(exported.get(), equalTo(1200L));
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount(), equalTo(0));
+    }
+
+    private User persistUser(String name) {
+        User user = User.builder().name(name).email(name + "@mail.com").build();
+        em.persist(user);
+        return user;
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
     private void assertChecks(Booking bookingToCheck) {
         assertThat(bookingToCheck.getId(), notNullValue());
         assertThat(bookingToCheck.getStart(), equalTo(booking.getStart()));
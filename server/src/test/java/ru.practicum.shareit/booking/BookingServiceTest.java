@@ -6,14 +6,25 @@ import org.mapstruct.factory.Mappers;
 import org.mockito.Mockito;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.component.BookingCursor;
+import ru.practicum.shareit.booking.component.BookingDispatcher;
+import ru.practicum.shareit.booking.component.BookingTimeline;
+import ru.practicum.shareit.booking.component.GetBookingsAll;
+import ru.practicum.shareit.booking.component.GetBookingsOwnerAll;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingMapper;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.enums.Role;
 import ru.practicum.shareit.enums.Status;
 import ru.practicum.shareit.exceptions.AlreadyApproved;
+import ru.practicum.shareit.exceptions.BookingOverlap;
 import ru.practicum.shareit.exceptions.NoItemAvailable;
 import ru.practicum.shareit.exceptions.NoSuchBooking;
+import ru.practicum.shareit.exceptions.NoSuchUser;
 import ru.practicum.shareit.exceptions.UnknownState;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.exceptions.WrongUser;
@@ -27,12 +38,19 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class BookingServiceTest {
@@ -65,7 +83,10 @@ class BookingServiceTest {
         bookingDto = BookingDto.builder().id(bookingId).start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2))
                 .booker(bookerDto).item(itemDto).status(Status.WAITING).build();
         booking = mapper.toBooking(bookingDto);
-        bookingService = new BookingServiceImpl(mapper, bookingRepository, itemService, userRepository, itemRepository);
+        BookingDispatcher dispatcher = new BookingDispatcher(List.of(
+                new GetBookingsAll(bookingRepository, mapper), new GetBookingsOwnerAll(bookingRepository, mapper)));
+        bookingService = new BookingServiceImpl(mapper, bookingRepository, itemService, userRepository, itemRepository,
+                dispatcher, new BookingTimeline(bookingRepository));
         page = PageRequest.of(0, 20);
     }
 
@@ -88,7 +109,7 @@ class BookingServiceTest {
     @Test
     void createBookingOwnItem() {
         when(itemService.isItemAvailable(any(Long.class))).thenReturn(true);
-        when(itemRepository.findById(any(Long.class))).thenReturn(Optional.ofNullable(item));
+        when(itemRepository.findByIdForUpdate(any(Long.class))).thenReturn(Optional.ofNullable(item));
         when(userRepository.findById(any(Long.class))).thenReturn(Optional.ofNullable(booker));
         item.setOwner(booker.getId());
         assertThatThrownBy(() -> bookingToCreate = bookingService.createBooking(bookerId, bookingDto))
@@ -104,6 +125,39 @@ class BookingServiceTest {
                 .hasMessage("This item is not available");
     }
 
+    @Test
+    void createBookingOverlap() {
+        whenReturn();
+        Booking other = mapper.toBooking(bookingDto);
+        other.setId(5);
+        when(bookingRepository.findOverlapping(any(Long.class), any(LocalDateTime.class), any(LocalDateTime.class),
+                any())).thenReturn(List.of(other));
+        assertThatThrownBy(() -> bookingService.createBooking(bookerId, bookingDto))
+                .isInstanceOf(BookingOverlap.class)
+                .hasMessage("The item is already booked for these dates");
+    }
+
+    @Test
+    void updateBookingRejectedOverlap() {
+        bookingDto.setStatus(Status.REJECTED);
+        Booking other = mapper.toBooking(bookingDto);
+        other.setId(5);
+        when(bookingRepository.findById(any(Long.class))).thenReturn(Optional.of(mapper.toBooking(bookingDto)));
+        when(bookingRepository.findOverlapping(any(Long.class), any(LocalDateTime.class), any(LocalDateTime.class),
+                any())).thenReturn(List.of(other));
+        assertThatThrownBy(() -> bookingService.updateBooking(ownerId, bookingId, true))
+                .isInstanceOf(BookingOverlap.class);
+    }
+
+    @Test
+    void updateBookingRejectedWithoutOverlap() {
+        bookingDto.setStatus(Status.REJECTED);
+        when(bookingRepository.findById(any(Long.class))).thenReturn(Optional.of(mapper.toBooking(bookingDto)));
+        when(bookingRepository.findOverlapping(any(Long.class), any(LocalDateTime.class), any(LocalDateTime.class),
+                any())).thenReturn(List.of(mapper.toBooking(bookingDto)));
+        assertEquals(Status.APPROVED, bookingService.updateBooking(ownerId, bookingId, true).getStatus());
+    }
+
     @Test
     void updateBooking() {
         whenReturn();
@@ -132,6 +186,58 @@ class BookingServiceTest {
                 .hasMessage("This booking was already approved");
     }
 
+    @Test
+    void updateBookings() {
+        Booking approved = mapper.toBooking(bookingDto);
+        approved.setId(2);
+        approved.setStatus(Status.APPROVED);
+        Booking foreign = mapper.toBooking(bookingDto);
+        foreign.setId(3);
+        foreign.getItem().setOwner(99L);
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(any()))
+                .thenReturn(List.of(mapper.toBooking(bookingDto), approved, foreign));
+
+        List<BookingDecisionResult> results = bookingService.updateBookings(ownerId, List.of(
+                new BookingDecisionDto(bookingId, true), new BookingDecisionDto(2, true),
+                new BookingDecisionDto(3, false), new BookingDecisionDto(4, false)));
+
+        assertEquals(List.of(bookingId, 2L, 3L, 4L), results.stream().map(BookingDecisionResult::getBookingId)
+                .collect(Collectors.toList()));
+        assertEquals(Status.APPROVED, results.get(0).getBooking().getStatus());
+        assertEquals("This booking was already approved", results.get(1).getError());
+        assertEquals("User is not an owner of this item for this booking", results.get(2).getError());
+        assertEquals("Booking was not found", results.get(3).getError());
+        assertEquals(Status.APPROVED, approved.getStatus());
+        assertEquals(Status.WAITING, foreign.getStatus());
+    }
+
+    @Test
+    void updateBookingsRejectedOverlap() {
+        bookingDto.setStatus(Status.REJECTED);
+        Booking other = mapper.toBooking(bookingDto);
+        other.setId(5);
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(any())).thenReturn(List.of(mapper.toBooking(bookingDto)));
+        when(bookingRepository.findOverlapping(any(Long.class), any(LocalDateTime.class), any(LocalDateTime.class),
+                any())).thenReturn(List.of(other));
+
+        List<BookingDecisionResult> results = bookingService.updateBookings(ownerId,
+                List.of(new BookingDecisionDto(bookingId, true)));
+
+        assertEquals("The item is already booked for these dates", results.get(0).getError());
+    }
+
+    @Test
+    void updateBookingsEmptyOrTooMany() {
+        List<BookingDecisionDto> tooMany = Collections.nCopies(BookingServiceImpl.MAX_DECISIONS + 1,
+                new BookingDecisionDto(bookingId, true));
+
+        assertThatThrownBy(() -> bookingService.updateBookings(ownerId, List.of()))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> bookingService.updateBookings(ownerId, tooMany))
+                .isInstanceOf(ValidationException.class);
+        verifyNoInteractions(bookingRepository);
+    }
+
     @Test
     void getBookingByIdValid() {
         whenReturn();
@@ -144,7 +250,7 @@ class BookingServiceTest {
     @Test
     void getBookingsByUserNotFound() {
         bookingDto.getBooker().setId(99);
-        when(bookingRepository.findByBookerIdOrderByStartDesc(bookerId, page))
+        when(bookingRepository.findByBookerId(bookerId, page))
                 .thenReturn(new ArrayList<>());
         assertThatThrownBy(() -> bookingService.getBookingsByUser(bookerId, "ALL", page))
                 .isInstanceOf(NoSuchBooking.class)
@@ -153,7 +259,7 @@ class BookingServiceTest {
 
     @Test
     void getBookingsByUserInvalidState() {
-        when(bookingRepository.findByBookerIdOrderByStartDesc(bookerId, page))
+        when(bookingRepository.findByBookerId(bookerId, page))
                 .thenReturn(new ArrayList<>());
         assertThatThrownBy(() -> bookingService.getBookingsByUser(bookerId, "UNKNOWN", page))
                 .isInstanceOf(UnknownState.class)
@@ -164,8 +270,8 @@ class BookingServiceTest {
     void getBookingsByUserValid() {
         whenReturn();
         bookingToCreate = bookingService.createBooking(bookerId, bookingDto);
-        when(bookingRepository.findByBookerIdOrderByStartDesc(bookerId, page))
-                .thenReturn(List.of(mapper.toBooking(bookingToCreate)));
+        when(bookingRepository.findByBookerId(bookerId, page))
+                .thenReturn(List.of(toView(bookingToCreate)));
         List<BookingDto> bookingToGet = bookingService.getBookingsByUser(bookerId, "ALL", page);
         assertEquals(bookingToGet, List.of(bookingDto));
     }
@@ -174,15 +280,72 @@ class BookingServiceTest {
     void getBookingsByItemsOfUser() {
         whenReturn();
         bookingToCreate = bookingService.createBooking(bookerId, bookingDto);
-        when(bookingRepository.findByItemOwnerOrderByStartDesc(ownerId, page))
-                .thenReturn(List.of(mapper.toBooking(bookingToCreate)));
+        when(bookingRepository.findByItemOwner(ownerId, page))
+                .thenReturn(List.of(toView(bookingToCreate)));
         List<BookingDto> bookingToGet = bookingService.getBookingsByItemsOfUser(ownerId, "ALL", page);
         assertEquals(bookingToGet, List.of(bookingDto));
     }
 
+    @Test
+    void getBookingsByUserFirstCursorPageNotFound() {
+        when(bookingRepository.findByBookerIdBefore(bookerId, BookingCursor.FIRST.getStart(), BookingCursor.FIRST.getId(),
+                PageRequest.of(0, 20))).thenReturn(new ArrayList<>());
+        assertThatThrownBy(() -> bookingService.getBookingsByUser(bookerId, "ALL", BookingCursor.FIRST, 20))
+                .isInstanceOf(NoSuchBooking.class)
+                .hasMessage("Bookings were not found");
+    }
+
+    @Test
+    void getBookingsByItemsOfUserLastCursorPage() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.now(), LocalDateTime.now().plusDays(1), 1);
+        when(bookingRepository.findByItemOwnerBefore(ownerId, cursor.getStart(), cursor.getId(), PageRequest.of(0, 20)))
+                .thenReturn(new ArrayList<>());
+        assertTrue(bookingService.getBookingsByItemsOfUser(ownerId, "ALL", cursor, 20).isEmpty());
+    }
+
+    @Test
+    void exportBookingsByItemsOfUser() {
+        when(userRepository.existsById(ownerId)).thenReturn(true);
+        when(bookingRepository.findByItemOwner(ownerId,
+                PageRequest.of(0, BookingServiceImpl.EXPORT_PAGE))).thenReturn(List.of(toView(bookingDto)));
+        List<BookingDto> exported = new ArrayList<>();
+        bookingService.exportBookings(ownerId, Role.OWNER, exported::add);
+        assertEquals(List.of(bookingDto), exported);
+        verify(bookingRepository, never()).findByItemOwnerBefore(anyLong(), any(), anyLong(), any());
+    }
+
+    @Test
+    void exportBookingsByUserInPages() {
+        PageRequest page = PageRequest.of(0, BookingServiceImpl.EXPORT_PAGE);
+        BookingView view = toView(bookingDto);
+        List<BookingView> fullPage = Collections.nCopies(BookingServiceImpl.EXPORT_PAGE, view);
+        when(userRepository.existsById(bookerId)).thenReturn(true);
+        when(bookingRepository.findByBookerId(bookerId, page)).thenReturn(fullPage);
+        when(bookingRepository.findByBookerIdBefore(bookerId, view.getStart(), view.getId(), page))
+                .thenReturn(List.of(view));
+        List<BookingDto> exported = new ArrayList<>();
+        bookingService.exportBookings(bookerId, Role.BOOKER, exported::add);
+        assertEquals(BookingServiceImpl.EXPORT_PAGE + 1, exported.size());
+    }
+
+    @Test
+    void exportBookingsNoUser() {
+        when(userRepository.existsById(bookerId)).thenReturn(false);
+        assertThatThrownBy(() -> bookingService.exportBookings(bookerId, Role.BOOKER, booking -> { }))
+                .isInstanceOf(NoSuchUser.class)
+                .hasMessage("No such user");
+    }
+
+    private BookingView toView(BookingDto dto) {
+        return new BookingView(dto.getId(), dto.getStart(), dto.getEnd(), dto.getStatus(), dto.getItem().getId(),
+                dto.getItem().getName(), dto.getItem().getDescription(), dto.getItem().getAvailable(),
+                dto.getItem().getOwner(), dto.getItem().getRequestId(), dto.getBooker().getId(), dto.getBooker().getName(),
+                dto.getBooker().getEmail());
+    }
+
     private void whenReturn() {
         when(itemService.isItemAvailable(any(Long.class))).thenReturn(true);
-        when(itemRepository.findById(any(Long.class))).thenReturn(Optional.ofNullable(item));
+        when(itemRepository.findByIdForUpdate(any(Long.class))).thenReturn(Optional.ofNullable(item));
         when(userRepository.findById(any(Long.class))).thenReturn(Optional.ofNullable(booker));
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
     }
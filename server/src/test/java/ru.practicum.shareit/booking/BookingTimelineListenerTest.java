@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.component.BookingTimeline;
+import ru.practicum.shareit.booking.dto.TimelineEntry;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingTimelineListenerTest {
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final BookingTimeline bookingTimeline;
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testDeletedBookingLeavesTimeline() {
+        User user = userRepository.save(User.builder().name("user").email("user@timeline.com").build());
+        Item item = itemRepository.save(Item.builder().name("item").description("description").available(true)
+                .owner(user.getId()).build());
+        Booking booking = bookingRepository.save(Booking.builder().item(item).booker(user).status(Status.WAITING)
+                .start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2)).build());
+        bookingTimeline.update(booking);
+        assertEquals(Optional.of(booking.getId()),
+                bookingTimeline.findNext(item.getId(), LocalDateTime.now()).map(TimelineEntry::getId));
+
+        bookingRepository.deleteById(booking.getId());
+
+        assertTrue(bookingTimeline.findNext(item.getId(), LocalDateTime.now()).isEmpty());
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.component.BookingTimeline;
+import ru.practicum.shareit.booking.dto.TimelineEntry;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+class BookingTimelineTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 3, 10, 12, 0);
+
+    private final BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
+    private BookingTimeline timeline;
+
+    @BeforeEach
+    void initTest() {
+        timeline = new BookingTimeline(bookingRepository);
+        timeline.update(booking(1, 1, NOW.minusDays(5), Status.APPROVED));
+        timeline.update(booking(2, 1, NOW.minusDays(2), Status.APPROVED));
+        timeline.update(booking(3, 1, NOW.plusDays(1), Status.WAITING));
+        timeline.update(booking(4, 1, NOW.plusDays(3), Status.APPROVED));
+        timeline.update(booking(5, 2, NOW.plusDays(2), Status.WAITING));
+    }
+
+    @Test
+    void testFindLastAndNext() {
+        assertEquals(Optional.of(2L), id(timeline.findLast(1, NOW)));
+        assertEquals(Optional.of(3L), id(timeline.findNext(1, NOW)));
+        assertEquals(Optional.empty(), id(timeline.findLast(2, NOW)));
+        assertEquals(Optional.of(5L), id(timeline.findNext(2, NOW)));
+    }
+
+    @Test
+    void testFindUnknownItem() {
+        assertTrue(timeline.findLast(3, NOW).isEmpty());
+        assertTrue(timeline.findNext(3, NOW).isEmpty());
+    }
+
+    @Test
+    void testBookingStartingNowIsNeitherLastNorNext() {
+        timeline.update(booking(6, 2, NOW, Status.APPROVED));
+
+        assertTrue(timeline.findLast(2, NOW).isEmpty());
+        assertEquals(Optional.of(5L), id(timeline.findNext(2, NOW)));
+    }
+
+    @Test
+    void testRejectedBookingIsRemoved() {
+        timeline.update(booking(3, 1, NOW.plusDays(1), Status.REJECTED));
+        timeline.update(booking(5, 2, NOW.plusDays(2), Status.REJECTED));
+
+        assertEquals(Optional.of(4L), id(timeline.findNext(1, NOW)));
+        assertTrue(timeline.findNext(2, NOW).isEmpty());
+    }
+
+    @Test
+    void testUpdateAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            timeline.update(booking(6, 1, NOW.minusDays(1), Status.WAITING));
+            assertEquals(Optional.of(2L), id(timeline.findLast(1, NOW)));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(Optional.of(6L), id(timeline.findLast(1, NOW)));
+    }
+
+    @Test
+    void testRebuild() {
+        List<TimelineEntry> stored = LongStream.rangeClosed(1, 1500)
+                .mapToObj(id -> new TimelineEntry(id, 7L, 1L, NOW.minusDays(id), NOW.minusDays(id).plusHours(12)))
+                .collect(Collectors.toList());
+        List<Long> afterIds = new ArrayList<>();
+        when(bookingRepository.findTimelineAfter(eq(Status.REJECTED), anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    long afterId = invocation.getArgument(1);
+                    Pageable page = invocation.getArgument(2);
+                    afterIds.add(afterId);
+                    return stored.stream().filter(entry -> entry.getId() > afterId)
+                            .limit(page.getPageSize()).collect(Collectors.toList());
+                });
+
+        timeline.rebuild();
+
+        assertEquals(List.of(0L, 1000L), afterIds);
+        assertTrue(timeline.findNext(1, NOW).isEmpty());
+        assertEquals(Optional.of(1L), id(timeline.findLast(7, NOW)));
+        assertEquals(Optional.of(1500L), id(timeline.findNext(7, NOW.minusDays(1501))));
+    }
+
+    @Test
+    void testEvict() {
+        timeline.evict(2);
+        timeline.evict(3);
+
+        assertEquals(Optional.of(1L), id(timeline.findLast(1, NOW)));
+        assertEquals(Optional.of(4L), id(timeline.findNext(1, NOW)));
+    }
+
+    @Test
+    void testFindLastAmongOverlappingBookings() {
+        timeline.update(booking(6, 3, NOW.minusDays(10), NOW.minusDays(1), Status.APPROVED));
+        timeline.update(booking(7, 3, NOW.minusDays(5), NOW.minusDays(4), Status.APPROVED));
+        timeline.update(booking(8, 3, NOW.minusDays(3), NOW.minusDays(2), Status.WAITING));
+
+        assertEquals(Optional.of(6L), id(timeline.findLast(3, NOW)));
+
+        timeline.evict(6);
+        assertEquals(Optional.of(8L), id(timeline.findLast(3, NOW)));
+    }
+
+    @Test
+    void testFindNextAmongOverlappingBookings() {
+        timeline.update(booking(6, 3, NOW.plusDays(1), NOW.plusDays(10), Status.APPROVED));
+        timeline.update(booking(7, 3, NOW.plusDays(2), NOW.plusDays(3), Status.WAITING));
+        timeline.update(booking(8, 3, NOW.plusDays(4), NOW.plusDays(5), Status.APPROVED));
+
+        assertEquals(Optional.of(7L), id(timeline.findNext(3, NOW)));
+
+        timeline.evict(7);
+        assertEquals(Optional.of(8L), id(timeline.findNext(3, NOW)));
+
+        timeline.evict(8);
+        assertEquals(Optional.of(6L), id(timeline.findNext(3, NOW)));
+    }
+
+    private Booking booking(long id, long itemId, LocalDateTime start, Status status) {
+        return booking(id, itemId, start, start.plusHours(12), status);
+    }
+
+    private Booking booking(long id, long itemId, LocalDateTime start, LocalDateTime end, Status status) {
+        return Booking.builder().id(id).start(start).end(end).status(status)
+                .item(Item.builder().id(itemId).build()).booker(User.builder().id(10).build()).build();
+    }
+
+    private Optional<Long> id(Optional<TimelineEntry> entry) {
+        return entry.map(TimelineEntry::getId);
+    }
+}
@@ -7,8 +7,12 @@ import org.mockito.Mockito;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.component.BookingCursor;
+import ru.practicum.shareit.booking.component.BookingDispatcher;
+import ru.practicum.shareit.booking.component.GetBookingsAll;
 import ru.practicum.shareit.booking.component.GetBookingsCurrent;
 import ru.practicum.shareit.booking.component.GetBookingsFuture;
+import ru.practicum.shareit.booking.component.GetBookingsOwnerAll;
 import ru.practicum.shareit.booking.component.GetBookingsOwnerCurrent;
 import ru.practicum.shareit.booking.component.GetBookingsOwnerFuture;
 import ru.practicum.shareit.booking.component.GetBookingsOwnerPast;
@@ -18,10 +22,13 @@ import ru.practicum.shareit.booking.component.GetBookingsPast;
 import ru.practicum.shareit.booking.component.GetBookingsRejected;
 import ru.practicum.shareit.booking.component.GetBookingsWaiting;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingMapper;
+import ru.practicum.shareit.enums.Role;
 import ru.practicum.shareit.enums.State;
 import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -29,7 +36,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
@@ -37,6 +46,7 @@ public class ComponentTest {
     private final BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
     private final BookingMapper mapper = Mappers.getMapper(BookingMapper.class);
     private Booking booking;
+    private BookingView bookingView;
     private User booker;
     private long bookerId;
     private Pageable page;
@@ -52,37 +62,39 @@ public class ComponentTest {
         Item item = Item.builder().id(itemId).name("name").description("description").owner(ownerId).available(true).build();
         booking = Booking.builder().id(bookingId).start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2))
                 .booker(booker).item(item).status(Status.WAITING).build();
+        bookingView = new BookingView(bookingId, booking.getStart(), booking.getEnd(), Status.WAITING, itemId,
+                item.getName(), item.getDescription(), true, ownerId, null, bookerId, booker.getName(), booker.getEmail());
     }
 
     @Test
     void testGetBookingsCurrent() {
         GetBookingsCurrent bookingsCurrent = new GetBookingsCurrent(bookingRepository, mapper);
-        when(bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByEndDesc(any(Long.class), any(LocalDateTime.class),
-                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findCurrentByBookerId(any(Long.class), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(List.of(bookingView));
         assertChecks(bookingsCurrent.findBookings(booker.getId(), page), bookingsCurrent.getState(), State.CURRENT);
     }
 
     @Test
     void testGetBookingsFuture() {
         GetBookingsFuture bookingsFuture = new GetBookingsFuture(bookingRepository, mapper);
-        when(bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(any(Long.class),
-                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findFutureByBookerId(any(Long.class),
+                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(bookingView));
         assertChecks(bookingsFuture.findBookings(booker.getId(), page), bookingsFuture.getState(), State.FUTURE);
     }
 
     @Test
     void testGetBookingsPast() {
         GetBookingsPast bookingsPast = new GetBookingsPast(bookingRepository, mapper);
-        when(bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(any(Long.class), any(LocalDateTime.class),
-                any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findPastByBookerId(any(Long.class), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(List.of(bookingView));
         assertChecks(bookingsPast.findBookings(booker.getId(), page), bookingsPast.getState(), State.PAST);
     }
 
     @Test
     void testGetBookingWaiting() {
         GetBookingsWaiting bookingsWaiting = new GetBookingsWaiting(bookingRepository, mapper);
-        when(bookingRepository.findByBookerIdAndStatusIsOrderByStartDesc(bookerId, Status.WAITING, page))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findByBookerIdAndStatus(bookerId, Status.WAITING, page))
+                .thenReturn(List.of(bookingView));
         assertChecks(bookingsWaiting.findBookings(booker.getId(), page), bookingsWaiting.getState(), State.WAITING);
     }
 
@@ -90,51 +102,72 @@ public class ComponentTest {
     @Test
     void testGetBookingsRejected() {
         GetBookingsRejected bookingsRejected = new GetBookingsRejected(bookingRepository, mapper);
-        when(bookingRepository.findByBookerIdAndStatusIsOrderByStartDesc(bookerId, Status.REJECTED, page))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findByBookerIdAndStatus(bookerId, Status.REJECTED, page))
+                .thenReturn(List.of(bookingView));
         assertChecks(bookingsRejected.findBookings(booker.getId(), page), bookingsRejected.getState(), State.REJECTED);
     }
 
     @Test
     void testGetBookingsOwnerCurrent() {
         GetBookingsOwnerCurrent bookingsOwnerCurrent = new GetBookingsOwnerCurrent(bookingRepository, mapper);
-        when(bookingRepository.findByItemOwnerAndStartBeforeAndEndAfterOrderByStartDesc(any(Long.class), any(LocalDateTime.class),
-                any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findCurrentByItemOwner(any(Long.class), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(List.of(bookingView));
         assertChecks(bookingsOwnerCurrent.findBookings(booker.getId(), page), bookingsOwnerCurrent.getState(), State.CURRENT);
     }
 
     @Test
     void testGetBookingsOwnerPast() {
         GetBookingsOwnerPast bookingsOwnerPast = new GetBookingsOwnerPast(bookingRepository, mapper);
-        when(bookingRepository.findByItemOwnerAndEndBeforeOrderByStartDesc(any(Long.class), any(LocalDateTime.class),
-                any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findPastByItemOwner(any(Long.class), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(List.of(bookingView));
         assertChecks(bookingsOwnerPast.findBookings(booker.getId(), page), bookingsOwnerPast.getState(), State.PAST);
     }
 
     @Test
     void testGetBookingsOwnerFuture() {
         GetBookingsOwnerFuture bookingsOwnerFuture = new GetBookingsOwnerFuture(bookingRepository, mapper);
-        when(bookingRepository.findByItemOwnerAndStartAfterOrderByStartDesc(any(Long.class), any(LocalDateTime.class),
-                any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findFutureByItemOwner(any(Long.class), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(List.of(bookingView));
         assertChecks(bookingsOwnerFuture.findBookings(booker.getId(), page), bookingsOwnerFuture.getState(), State.FUTURE);
     }
 
     @Test
     void testGetBookingsOwnerWaiting() {
         GetBookingsOwnerWaiting bookingsOwnerWaiting = new GetBookingsOwnerWaiting(bookingRepository, mapper);
-        when(bookingRepository.findByItemOwnerAndStatusIsOrderByStartDesc(bookerId, Status.WAITING, page))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findByItemOwnerAndStatus(bookerId, Status.WAITING, page))
+                .thenReturn(List.of(bookingView));
         assertChecks(bookingsOwnerWaiting.findBookings(booker.getId(), page), bookingsOwnerWaiting.getState(), State.WAITING);
     }
 
     @Test
     void testGetBookingsOwnerRejected() {
         GetBookingsOwnerRejected bookingsOwnerRejected = new GetBookingsOwnerRejected(bookingRepository, mapper);
-        when(bookingRepository.findByItemOwnerAndStatusIsOrderByStartDesc(bookerId, Status.REJECTED, page))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findByItemOwnerAndStatus(bookerId, Status.REJECTED, page))
+                .thenReturn(List.of(bookingView));
         assertChecks(bookingsOwnerRejected.findBookings(booker.getId(), page), bookingsOwnerRejected.getState(), State.REJECTED);
     }
 
+    @Test
+    void testDispatchByRoleAndState() {
+        BookingDispatcher dispatcher = new BookingDispatcher(List.of(new GetBookingsAll(bookingRepository, mapper),
+                new GetBookingsOwnerAll(bookingRepository, mapper),
+                new GetBookingsWaiting(bookingRepository, mapper)));
+        when(bookingRepository.findByBookerId(bookerId, page)).thenReturn(List.of(bookingView));
+        when(bookingRepository.findByItemOwner(bookerId, page)).thenReturn(List.of(bookingView));
+
+        assertChecks(dispatcher.findBookings(Role.BOOKER, bookerId, State.ALL, page), State.ALL, State.ALL);
+        assertChecks(dispatcher.findBookings(Role.OWNER, bookerId, State.ALL, page), State.ALL, State.ALL);
+        assertTrue(dispatcher.findBookings(Role.OWNER, bookerId, State.WAITING, page).isEmpty());
+    }
+
+    @Test
+    void testDispatchDuplicateStrategy() {
+        assertThatThrownBy(() -> new BookingDispatcher(List.of(new GetBookingsAll(bookingRepository, mapper),
+                new GetBookingsAll(bookingRepository, mapper))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Duplicate booking strategy for BOOKER and ALL");
+    }
+
     private void assertChecks(List<BookingDto> bookingList, State stateReceive, State stateCheck) {
         List<Booking> bookings = bookingList.stream()
                 .map(mapper::toBooking)
@@ -142,4 +175,20 @@ public class ComponentTest {
         assertEquals(bookings.get(0).getId(), booking.getId());
         assertEquals(stateReceive, stateCheck);
     }
+
+    @Test
+    void testBookingCursorRoundTrip() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2023, 1, 1, 10, 0, 0, 123456000),
+                LocalDateTime.of(2023, 1, 2, 10, 0), 42);
+        assertEquals(cursor, BookingCursor.decode(cursor.encode()));
+        assertEquals(BookingCursor.FIRST, BookingCursor.decode(""));
+        assertTrue(BookingCursor.decode(null).isFirst());
+    }
+
+    @Test
+    void testBookingCursorInvalid() {
+        assertThatThrownBy(() -> BookingCursor.decode("invalid"))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("Invalid cursor");
+    }
 }
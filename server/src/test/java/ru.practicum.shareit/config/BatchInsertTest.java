@@ -0,0 +1,60 @@
+package ru.practicum.shareit.config;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Transactional
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BatchInsertTest {
+    private final EntityManager em;
+
+    @Test
+    void testInsertsAreBatched() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            User user = User.builder().name("batch").email("batch-" + i + "@mail.com").build();
+            em.persist(user);
+            users.add(user);
+        }
+        // items refer to their owner by a plain id, so insert ordering does not know they go after users
+        em.flush();
+        users.forEach(user -> em.persist(Item.builder().name("Item").description("Item").available(true)
+                .owner(user.getId()).build()));
+        em.flush();
+
+        // at most two blocks of ids and two insert batches per table instead of 200 inserts
+        assertTrue(statistics.getPrepareStatementCount() <= 8);
+        // other contexts draw from the same sequence, so only the ids within a block of 50 are contiguous
+        long breaks = IntStream.range(1, users.size())
+                .filter(i -> users.get(i).getId() != users.get(i - 1).getId() + 1)
+                .count();
+        assertTrue(breaks <= 2);
+    }
+
+    @Test
+    void testIdsContinueAfterExistingRows() {
+        Long maxId = em.createQuery("select max(u.id) from User u", Long.class).getSingleResult();
+        User user = User.builder().name("next").email("next@mail.com").build();
+        em.persist(user);
+        em.flush();
+
+        assertTrue(maxId == null || user.getId() > maxId);
+    }
+}
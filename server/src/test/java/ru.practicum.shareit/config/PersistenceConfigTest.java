@@ -0,0 +1,42 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class PersistenceConfigTest {
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    @Test
+    @SneakyThrows
+    void testPooledDataSource() {
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        assertEquals("shareit", pool.getPoolName());
+        assertEquals(5, pool.getMinimumIdle());
+        assertEquals(20, pool.getMaximumPoolSize());
+        assertEquals(30000, pool.getLeakDetectionThreshold());
+    }
+
+    @Test
+    @SneakyThrows
+    void testPoolMetrics() {
+        try (Connection connection = dataSource.getConnection()) {
+            assertNotNull(meterRegistry.find("hikaricp.connections.active").tag("pool", "shareit").gauge());
+            assertNotNull(meterRegistry.find("hikaricp.connections.pending").tag("pool", "shareit").gauge());
+            assertNotNull(meterRegistry.find("hikaricp.connections.acquire").tag("pool", "shareit").timer());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.config;
+
+import lombok.SneakyThrows;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsStringIgnoringCase;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import(PersistenceConfig.class)
+public class SchemaIndexTest {
+    private static final String BOOKINGS_BY_BOOKER = "select * from bookings b where b.booker_id = 1 " +
+            "order by b.start_date desc limit 20";
+    private static final String BOOKINGS_BY_BOOKER_AND_STATUS = "select * from bookings b where b.booker_id = 1 " +
+            "and b.status = 0 order by b.start_date desc limit 20";
+    private static final String BOOKINGS_BY_ITEM = "select * from bookings b where b.item_id in (1, 2) " +
+            "and b.status <> 2 and b.start_date < current_timestamp order by b.end_date desc";
+    private static final String BOOKINGS_BY_OWNER = "select b.* from bookings b join items i on b.item_id = i.id " +
+            "where i.owner_id = 1 order by b.start_date desc limit 20";
+    private static final String ITEMS_BY_OWNER = "select * from items i where i.owner_id = 1 order by i.id";
+    private static final String ITEMS_BY_REQUEST = "select * from items i where i.request_id in (1, 2)";
+    private static final String COMMENTS_BY_ITEM = "select * from comments c where c.item_id in (1, 2)";
+    private static final String REQUESTS_BY_REQUESTOR = "select * from requests r where r.requestor_id = 1 " +
+            "order by r.id desc";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * H2 creates its own index for every foreign key column, so on H2 the plans only have to avoid table scans.
+     * items.request_id has no foreign key and can only be served by the migration index.
+     */
+    @Test
+    void testH2PlansUseIndexes() {
+        for (String query : new String[]{BOOKINGS_BY_BOOKER, BOOKINGS_BY_BOOKER_AND_STATUS, BOOKINGS_BY_ITEM,
+                BOOKINGS_BY_OWNER, ITEMS_BY_OWNER, COMMENTS_BY_ITEM}) {
+            assertThat(query, h2Plan(query), not(containsStringIgnoringCase("tableScan")));
+        }
+        assertThat(h2Plan(ITEMS_BY_REQUEST), containsStringIgnoringCase("ix_items_request_id"));
+    }
+
+    /**
+     * Most migration indexes start with a foreign key column, so H2 is free to pick its own foreign key index for
+     * them instead. Every migration index is therefore checked by name: it has the expected columns, and a plan
+     * limited to it looks rows up through it rather than scanning the table.
+     */
+    @Test
+    void testH2MigrationIndexes() {
+        Map<String, List<String>> expectedColumns = Map.of(
+                "ix_bookings_booker_start", List.of("BOOKER_ID ASC", "START_DATE DESC"),
+                "ix_bookings_booker_status_start", List.of("BOOKER_ID ASC", "STATUS ASC", "START_DATE DESC"),
+                "ix_bookings_item_status_start", List.of("ITEM_ID ASC", "STATUS ASC", "START_DATE ASC"),
+                "ix_items_owner_id", List.of("OWNER_ID ASC", "ID ASC"),
+                "ix_items_request_id", List.of("REQUEST_ID ASC"),
+                "ix_comments_item_id", List.of("ITEM_ID ASC"),
+                "ix_requests_requestor_id", List.of("REQUESTOR_ID ASC", "ID ASC"));
+        for (Map.Entry<String, List<String>> entry : expectedColumns.entrySet()) {
+            assertEquals(entry.getValue(), jdbcTemplate.queryForList("select column_name || ' ' || " +
+                    "ordering_specification from information_schema.index_columns where lower(index_name) = ? " +
+                    "order by ordinal_position", String.class, entry.getKey()), entry.getKey());
+        }
+
+        assertThat(h2Plan(BOOKINGS_BY_BOOKER, "bookings b", "ix_bookings_booker_start"),
+                containsStringIgnoringCase("ix_bookings_booker_start: booker_id = 1"));
+        assertThat(h2Plan(BOOKINGS_BY_BOOKER_AND_STATUS, "bookings b", "ix_bookings_booker_status_start"),
+                containsStringIgnoringCase("ix_bookings_booker_status_start: booker_id = 1 and status = 0"));
+        assertThat(h2Plan(BOOKINGS_BY_ITEM, "bookings b", "ix_bookings_item_status_start"),
+                containsStringIgnoringCase("ix_bookings_item_status_start: start_date < current_timestamp " +
+                        "and item_id in(1, 2)"));
+        assertThat(h2Plan(BOOKINGS_BY_OWNER, "items i", "ix_items_owner_id"),
+                containsStringIgnoringCase("ix_items_owner_id: owner_id = 1"));
+        assertThat(h2Plan(ITEMS_BY_OWNER, "items i", "ix_items_owner_id"),
+                containsStringIgnoringCase("ix_items_owner_id: owner_id = 1"));
+        assertThat(h2Plan(ITEMS_BY_REQUEST, "items i", "ix_items_request_id"),
+                containsStringIgnoringCase("ix_items_request_id: request_id in(1, 2)"));
+        assertThat(h2Plan(COMMENTS_BY_ITEM, "comments c", "ix_comments_item_id"),
+                containsStringIgnoringCase("ix_comments_item_id: item_id in(1, 2)"));
+        assertThat(h2Plan(REQUESTS_BY_REQUESTOR, "requests r", "ix_requests_requestor_id"),
+                containsStringIgnoringCase("ix_requests_requestor_id: requestor_id = 1"));
+    }
+
+    /**
+     * PostgreSQL does not index foreign key columns by itself, so every hot query has to hit one of the migration
+     * indexes. Runs only when SHAREIT_POSTGRES_URL points at a scratch database.
+     */
+    @Test
+    @SneakyThrows
+    @EnabledIfEnvironmentVariable(named = "SHAREIT_POSTGRES_URL", matches = ".+")
+    void testPostgresPlansUseIndexes() {
+        String url = System.getenv("SHAREIT_POSTGRES_URL");
+        String user = System.getenv().getOrDefault("SHAREIT_POSTGRES_USER", "sa");
+        String password = System.getenv().getOrDefault("SHAREIT_POSTGRES_PASSWORD", "password");
+        Flyway.configure().dataSource(url, user, password).load().migrate();
+
+        Map<String, String> expectedIndexes = Map.of(
+                BOOKINGS_BY_BOOKER, "ix_bookings_booker_start",
+                BOOKINGS_BY_BOOKER_AND_STATUS, "ix_bookings_booker_status_start",
+                BOOKINGS_BY_ITEM, "ix_bookings_item_status_start",
+                BOOKINGS_BY_OWNER, "ix_items_owner_id",
+                ITEMS_BY_OWNER, "ix_items_owner_id",
+                ITEMS_BY_REQUEST, "ix_items_request_id",
+                COMMENTS_BY_ITEM, "ix_comments_item_id",
+                REQUESTS_BY_REQUESTOR, "ix_requests_requestor_id");
+        try (Connection connection = DriverManager.getConnection(url, user, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("set enable_seqscan = off");
+            for (Map.Entry<String, String> entry : expectedIndexes.entrySet()) {
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery("explain " + entry.getKey())) {
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1)).append('\n');
+                    }
+                }
+                assertThat(entry.getKey(), plan.toString(), containsStringIgnoringCase(entry.getValue()));
+            }
+        }
+    }
+
+    private String h2Plan(String query) {
+        return jdbcTemplate.queryForObject("explain " + query, String.class);
+    }
+
+    private String h2Plan(String query, String table, String index) {
+        return h2Plan(query.replace(" " + table + " ", " " + table + " use index (" + index + ") "))
+                .replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class SecondLevelCacheTest {
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final ItemService itemService;
+    private final ItemRepository itemRepository;
+    private final MeterRegistry meterRegistry;
+    private Statistics statistics;
+    private long userId;
+    private long itemId;
+
+    @BeforeEach
+    void initTest() {
+        userId = userService.createUser(UserDto.builder().name("cached").email("cached@mail.com").build()).getId();
+        itemId = itemService.createItem(userId, ItemDto.builder().name("Лодка").description("Надувная лодка")
+                .available(true).build()).getId();
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteById(itemId);
+        userRepository.deleteById(userId);
+    }
+
+    @Test
+    void testEntitiesAreReadFromCache() {
+        userRepository.findById(userId);
+        itemRepository.findById(itemId);
+        long statements = statistics.getPrepareStatementCount();
+
+        userRepository.findById(userId);
+        itemRepository.findById(itemId);
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void testUpdateInvalidatesCache() {
+        userRepository.findById(userId);
+        itemRepository.findById(itemId);
+
+        userService.updateUser(userId, UserDto.builder().name("renamed").build());
+        itemService.updateItem(userId, itemId, ItemDto.builder().available(false).build());
+
+        assertEquals("renamed", userRepository.findById(userId).orElseThrow().getName());
+        assertFalse(itemService.isItemAvailable(itemId));
+    }
+
+    @Test
+    void testQueryCacheIsInvalidatedByInsert() {
+        assertEquals(1, itemRepository.findAllByOwnerIsOrderById(userId).size());
+        assertEquals(1, itemRepository.findAllByOwnerIsOrderById(userId).size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        long secondItemId = itemService.createItem(userId, ItemDto.builder().name("Весло").description("Весло")
+                .available(true).build()).getId();
+        try {
+            assertEquals(2, itemRepository.findAllByOwnerIsOrderById(userId).size());
+        } finally {
+            itemRepository.deleteById(secondItemId);
+        }
+    }
+
+    @Test
+    void testCacheMetrics() {
+        userRepository.findById(userId);
+        userRepository.findById(userId);
+
+        assertNotNull(meterRegistry.find("cache.gets").tags("cache", "users", "result", "hit").functionCounter());
+        assertNotNull(meterRegistry.find("cache.gets").tags("cache", "items", "result", "miss").functionCounter());
+        assertNotNull(meterRegistry.find("cache.evictions").tags("cache", "users").functionCounter());
+        assertTrue(meterRegistry.find("cache.puts").tags("cache", "users").functionCounter().count() > 0);
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.config;
+
+import lombok.SneakyThrows;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.execution.mode=virtual")
+class VirtualThreadExecutionTest {
+    private static final boolean SUPPORTED = Runtime.version().feature() >= 21;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private VirtualThreadExecution execution;
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Test
+    void testRequestsAreServedInVirtualMode() {
+        assertEquals(SUPPORTED, execution.isVirtual());
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/users", String.class).getStatusCode());
+    }
+
+    @Test
+    @SneakyThrows
+    void testTomcatExecutorIsReplacedWhenSupported() {
+        Executor executor = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector()
+                .getProtocolHandler().getExecutor();
+        assertEquals(!SUPPORTED, executor instanceof ThreadPoolExecutor);
+
+        CompletableFuture<Object> virtual = new CompletableFuture<>();
+        executor.execute(() -> virtual.complete(Thread.currentThread().getName().startsWith("http-virtual-")));
+        assertEquals(SUPPORTED, virtual.get());
+    }
+
+    @Test
+    @SneakyThrows
+    void testVirtualThreadsAreFoundWhenSupported() {
+        assertEquals(SUPPORTED, VirtualThreads.factory("test-").isPresent());
+        assertEquals(SUPPORTED, VirtualThreads.executor("test-").isPresent());
+        if (SUPPORTED) {
+            ThreadFactory factory = VirtualThreads.factory("test-").orElseThrow();
+            Thread thread = factory.newThread(() -> { });
+            assertEquals(Boolean.TRUE, Thread.class.getMethod("isVirtual").invoke(thread));
+            assertEquals("test-0", thread.getName());
+
+            CompletableFuture<Object> virtual = new CompletableFuture<>();
+            VirtualThreads.executor("test-").orElseThrow().execute(() -> {
+                try {
+                    virtual.complete(Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+                } catch (ReflectiveOperationException exception) {
+                    virtual.completeExceptionally(exception);
+                }
+            });
+            assertEquals(Boolean.TRUE, virtual.get());
+        }
+    }
+}
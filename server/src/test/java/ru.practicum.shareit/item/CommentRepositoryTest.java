@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.metrics.CountQueries;
+import ru.practicum.shareit.metrics.QueryBudget;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@CountQueries
+public class CommentRepositoryTest {
+    private static final int AUTHORS = 12;
+
+    @Autowired
+    private CommentRepository repository;
+    @Autowired
+    private TestEntityManager entityManager;
+    private Item item;
+
+    @BeforeEach
+    void initTest() {
+        item = entityManager.persist(Item.builder().name("name").description("description").available(true)
+                .build());
+        for (int i = 0; i < AUTHORS; i++) {
+            User author = entityManager.persist(User.builder().name("author" + i).email("author" + i + "@mail.com")
+                    .build());
+            entityManager.persist(Comment.builder().text("text" + i).itemId(item.getId()).author(author)
+                    .created(LocalDateTime.now()).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        entityManager.getEntityManager().getEntityManagerFactory().getCache().evictAll();
+    }
+
+    @Test
+    @QueryBudget(1)
+    void testCommentsOfItemAreReadWithAuthors() {
+        List<Comment> comments = repository.findAllByItemId(item.getId());
+
+        assertEquals(AUTHORS, comments.size());
+        comments.forEach(comment -> assertTrue(comment.getAuthor().getName().startsWith("author")));
+    }
+
+    @Test
+    @QueryBudget(1)
+    void testCommentsOfItemsAreReadWithAuthors() {
+        List<Comment> comments = repository.findAllByItemIdIn(List.of(item.getId()));
+
+        assertEquals(AUTHORS, comments.size());
+        comments.forEach(comment -> assertTrue(comment.getAuthor().getName().startsWith("author")));
+    }
+}
@@ -7,21 +7,35 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.enums.ItemFormat;
+import ru.practicum.shareit.exceptions.NoSuchUser;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportError;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.BufferedReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.variables.Variables.HEADER;
 
@@ -116,14 +130,14 @@ class ItemControllerTest {
         String text = "Дрель";
         ItemDto itemToCreate = ItemDto.builder().id(itemId).name("Дрель аккумуляторная").description("description")
                 .available(true).owner(userId).build();
-        when(itemService.searchItems(text)).thenReturn(List.of(itemToCreate));
+        when(itemService.searchItems(text, 0, 10)).thenReturn(List.of(itemToCreate));
 
-        String response = mockMvc.perform(get("/items/search?text=" + text)
+        String response = mockMvc.perform(get("/items/search?text=" + text + "&from=0&size=10")
                         .header(HEADER, userId)
                         .contentType("application/json"))
                         .andExpect(status().isOk()).andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
 
-        verify(itemService).searchItems("Дрель");
+        verify(itemService).searchItems("Дрель", 0, 10);
         assertEquals(objectMapper.writeValueAsString(List.of(itemToCreate)), response);
     }
 
@@ -145,4 +159,57 @@ class ItemControllerTest {
         verify(itemService).createComment(userId, itemId, commentDtoToCreate);
         assertEquals(objectMapper.writeValueAsString(commentDtoToCreate), response);
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void testImportItems() {
+        long userId = 1;
+        ItemImportResult result = ItemImportResult.builder().imported(1).failed(1)
+                .errors(List.of(new ItemImportError(2, "Name is blank"))).build();
+        when(itemService.importItems(eq(userId), eq(ItemFormat.CSV), any(Reader.class))).thenAnswer(invocation -> {
+            BufferedReader reader = new BufferedReader(invocation.getArgument(2, Reader.class));
+            assertEquals(List.of("name,description,available", "Лодка,Лодка,true"),
+                    reader.lines().collect(Collectors.toList()));
+            return result;
+        });
+
+        String response = mockMvc.perform(post("/items/import").header(HEADER, userId)
+                        .contentType("text/csv")
+                        .content("name,description,available\nЛодка,Лодка,true".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(result), response);
+    }
+
+    @Test
+    @SneakyThrows
+    void testExportItems() {
+        long userId = 1;
+        List<ItemDto> items = List.of(ItemDto.builder().id(1).name("Лодка").build(),
+                ItemDto.builder().id(2).name("Весло").build());
+        doAnswer(invocation -> {
+            Consumer<ItemDto> consumer = invocation.getArgument(1);
+            items.forEach(consumer);
+            return null;
+        }).when(itemService).exportItems(eq(userId), any());
+
+        String response = mockMvc.perform(get("/items/export").header(HEADER, userId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(objectMapper.writeValueAsString(items.get(0)) + "\n" +
+                objectMapper.writeValueAsString(items.get(1)) + "\n", response);
+    }
+
+    @Test
+    @SneakyThrows
+    void testExportItemsNoUser() {
+        doThrow(new NoSuchUser("No such user")).when(itemService).exportItems(eq(99L), any());
+
+        mockMvc.perform(get("/items/export").header(HEADER, 99))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("{\"Object not found\":\"No such user\"}"));
+    }
+}
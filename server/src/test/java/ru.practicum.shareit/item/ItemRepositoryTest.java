@@ -54,9 +54,13 @@ public class ItemRepositoryTest {
     }
 
     @Test
-    void testSearchItems() {
+    void testGetItemsByRequests() {
+        item.setRequestId(1);
         repository.save(item);
-        List<Item> itemsToFind = repository.search("description");
-        assertEquals(itemsToFind.get(0).getDescription(), "description");
+        repository.save(Item.builder().name("name").description("description").available(true).requestId(2).build());
+        repository.save(Item.builder().name("name").description("description").available(true).requestId(3).build());
+
+        List<Item> itemsToFind = repository.findItemsByRequestIdIn(List.of(1L, 2L));
+        assertEquals(2, itemsToFind.size());
     }
 }
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.component.ItemSearchIndex;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemSearchIndexTest {
+    private final ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void initTest() {
+        index = new ItemSearchIndex(itemRepository);
+        index.index(item(1, "Отвертка", "Аккумуляторная отвертка", true));
+        index.index(item(2, "Дрель", "Простая дрель", true));
+        index.index(item(3, "Дрель аккумуляторная", "Аккумуляторная дрель", true));
+        index.index(item(4, "Дрель ударная", "Не выдается", false));
+    }
+
+    @Test
+    void testSearchIgnoresCase() {
+        assertEquals(List.of(3L, 1L), ids(index.search("аккУМУляторная", 0, 10)));
+    }
+
+    @Test
+    void testSearchRanksNameMatchesFirst() {
+        index.index(item(5, "Шуруповерт", "Работает как дрель", true));
+        assertEquals(List.of(2L, 3L, 5L), ids(index.search("дРелЬ", 0, 10)));
+    }
+
+    @Test
+    void testSearchSkipsUnavailable() {
+        assertTrue(index.search("ударная", 0, 10).isEmpty());
+    }
+
+    @Test
+    void testSearchPage() {
+        assertEquals(List.of(3L), ids(index.search("дрель", 1, 1)));
+        assertTrue(index.search("дрель", 2, 10).isEmpty());
+    }
+
+    @Test
+    void testSearchShortText() {
+        assertEquals(List.of(2L, 3L), ids(index.search("др", 0, 10)));
+    }
+
+    @Test
+    void testSearchSingleCharacter() {
+        assertEquals(List.of(2L, 3L, 1L), ids(index.search("Л", 0, 10)));
+        assertTrue(index.search("щ", 0, 10).isEmpty());
+    }
+
+    @Test
+    void testSearchShortTextAfterUpdate() {
+        index.index(item(2, "Молоток", "Простой молоток", true));
+
+        assertEquals(List.of(3L), ids(index.search("др", 0, 10)));
+    }
+
+    @Test
+    void testRebuildReadsBatchesAfterTheLastId() {
+        List<Item> first = LongStream.rangeClosed(1, 1000)
+                .mapToObj(id -> item(id, "Пила " + id, "Пила", true))
+                .collect(Collectors.toList());
+        when(itemRepository.findAllAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation ->
+                invocation.getArgument(0, Long.class) == 0 ? first : List.of(item(1001, "Пила", "Пила", true)));
+
+        index.rebuild();
+
+        assertEquals(1001, index.search("пила", 0, 2000).size());
+        verify(itemRepository).findAllAfter(eq(1000L), any(Pageable.class));
+        verify(itemRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void testSearchPageOfManyMatches() {
+        for (long id = 10; id < 110; id++) {
+            index.index(item(id, id % 2 == 0 ? "Дрель " + id : "Шуруповерт " + id, "Работает как дрель", true));
+        }
+
+        assertEquals(List.of(2L, 3L, 10L, 12L), ids(index.search("др", 0, 4)));
+        assertEquals(List.of(106L, 108L, 11L, 13L), ids(index.search("др", 50, 4)));
+        assertEquals(List.of(107L, 109L), ids(index.search("др", 100, 4)));
+        assertTrue(index.search("др", 102, 4).isEmpty());
+    }
+
+    @Test
+    void testSearchAfterUpdate() {
+        index.index(item(2, "Молоток", "Простой молоток", true));
+        index.index(item(3, "Дрель аккумуляторная", "Аккумуляторная дрель", false));
+        index.index(item(4, "Дрель ударная", "Выдается", true));
+
+        assertEquals(List.of(4L), ids(index.search("дрель", 0, 10)));
+        assertEquals(List.of(2L), ids(index.search("молот", 0, 10)));
+    }
+
+    @Test
+    void testIndexAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.index(item(5, "Перфоратор", "Перфоратор", true));
+            assertTrue(index.search("перфоратор", 0, 10).isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of(5L), ids(index.search("перфоратор", 0, 10)));
+    }
+
+    @Test
+    void testRebuild() {
+        when(itemRepository.findAllAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation ->
+                invocation.getArgument(0, Long.class) == 0
+                        ? List.of(item(7, "Пила", "Пила цепная", true), item(8, "Пила", "Пила ручная", false))
+                        : List.of());
+
+        index.rebuild();
+
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+        assertEquals(List.of(7L), ids(index.search("пила", 0, 10)));
+    }
+
+    private Item item(long id, String name, String description, boolean available) {
+        return Item.builder().id(id).name(name).description(description).available(available).owner(1L).build();
+    }
+
+    private List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
@@ -45,7 +45,7 @@ public class ItemServiceIntegrationTest {
 
     @Test
     void testUpdateItem() {
-        long itemId = 1;
+        long itemId = itemToCreate.getId();
         item.setName("Updated name");
         itemToCreate = itemService.updateItem(userToCreate.getId(), itemToCreate.getId(), item);
 
@@ -5,15 +5,19 @@ import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
 import org.mockito.Mockito;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.model.BookingMapper;
+import ru.practicum.shareit.booking.component.BookingTimeline;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.ItemFormat;
 import ru.practicum.shareit.enums.Status;
 import ru.practicum.shareit.exceptions.NoSuchItem;
 import ru.practicum.shareit.exceptions.NoSuchUser;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.exceptions.WrongUser;
+import ru.practicum.shareit.item.component.ItemSearchIndex;
+import ru.practicum.shareit.item.component.ItemTransfer;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.CommentMapper;
 import ru.practicum.shareit.item.model.Item;
@@ -21,9 +25,11 @@ import ru.practicum.shareit.item.model.ItemMapper;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.model.UserMapper;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import java.io.StringReader;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -50,6 +56,8 @@ class ItemServiceTest {
     private final CommentRepository commentRepository = Mockito.mock(CommentRepository.class);
     private final BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
     private final CommentMapper commentMapper = Mappers.getMapper(CommentMapper.class);
+    private final BookingTimeline bookingTimeline = new BookingTimeline(bookingRepository);
+    private final ItemTransfer itemTransfer = Mockito.mock(ItemTransfer.class);
 
     @BeforeEach
     public void initTest() {
@@ -57,7 +65,8 @@ class ItemServiceTest {
         userId = 1;
 
         userService = new UserServiceImpl(UserMapper.INSTANCE, userRepository);
-        itemService = new ItemServiceImpl(ItemMapper.INSTANCE, commentMapper, userService, itemRepository, commentRepository, bookingRepository, userRepository);
+        itemService = new ItemServiceImpl(ItemMapper.INSTANCE, commentMapper, userService, itemRepository, commentRepository, bookingRepository, userRepository,
+                new ItemSearchIndex(itemRepository), bookingTimeline, itemTransfer);
 
         item = Item.builder().id(itemId).name("name").description("description").available(true).owner(userId).build();
         itemDto = ItemDto.builder().id(itemId).name("name").description("description").available(true).build();
@@ -134,7 +143,7 @@ class ItemServiceTest {
     void getItemsByUser() {
         when(itemRepository.save(item)).thenReturn(item);
         when(itemRepository.findAllByOwnerIsOrderById(userId)).thenReturn(List.of(item));
-        when(commentRepository.findAllByItemId(itemId)).thenReturn(new ArrayList<>());
+        when(commentRepository.findAllByItemIdIn(List.of(itemId))).thenReturn(new ArrayList<>());
 
         ItemDto itemToCreate = itemService.createItem(userId, itemDto);
         itemToCreate.setComments(new ArrayList<>());
@@ -143,39 +152,78 @@ class ItemServiceTest {
         assertEquals(List.of(itemToCreate), itemActual);
     }
 
+    @Test
+    void getItemsByUserWithBookings() {
+        User booker = User.builder().id(2).name("booker").email("booker@mail.com").build();
+        Booking lastBooking = Booking.builder().id(1).item(item).booker(booker).status(Status.APPROVED)
+                .start(LocalDateTime.now().minusDays(2)).end(LocalDateTime.now().minusDays(1)).build();
+        Booking nextBooking = Booking.builder().id(2).item(item).booker(booker).status(Status.WAITING)
+                .start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2)).build();
+        Comment comment = Comment.builder().id(1).itemId(itemId).text("Comment").author(booker).build();
+        when(itemRepository.findAllByOwnerIsOrderById(userId)).thenReturn(List.of(item));
+        when(commentRepository.findAllByItemIdIn(List.of(itemId))).thenReturn(List.of(comment));
+        bookingTimeline.update(lastBooking);
+        bookingTimeline.update(nextBooking);
+
+        List<ItemDto> itemActual = itemService.getItemsByUser(userId);
+        assertEquals(1, itemActual.size());
+        assertEquals(lastBooking.getId(), itemActual.get(0).getLastBooking().getId());
+        assertEquals(nextBooking.getId(), itemActual.get(0).getNextBooking().getId());
+        assertEquals(List.of(commentMapper.toCommentDto(comment)), itemActual.get(0).getComments());
+    }
+
+    @Test
+    void getItemsByUserNoItems() {
+        when(itemRepository.findAllByOwnerIsOrderById(userId)).thenReturn(new ArrayList<>());
+
+        assertTrue(itemService.getItemsByUser(userId).isEmpty());
+    }
+
+    @Test
+    void importItems() {
+        ItemImportResult result = ItemImportResult.builder().imported(1).build();
+        StringReader reader = new StringReader("");
+        when(itemTransfer.importItems(userId, ItemFormat.NDJSON, reader)).thenReturn(result);
+
+        assertEquals(result, itemService.importItems(userId, ItemFormat.NDJSON, reader));
+    }
+
+    @Test
+    void exportItemsNoUser() {
+        when(userService.checkUserExists(any(Long.class))).thenReturn(false);
+
+        assertThatThrownBy(() -> itemService.exportItems(99, item -> { }))
+                .isInstanceOf(NoSuchUser.class)
+                .hasMessage("No such user");
+    }
+
     @Test
     void searchItems() {
         when(itemRepository.save(item)).thenReturn(item);
-        when(itemRepository.search("description")).thenReturn(List.of(item));
 
         ItemDto itemToCreate = itemService.createItem(userId, itemDto);
 
-        List<ItemDto> itemActual = itemService.searchItems("description");
+        List<ItemDto> itemActual = itemService.searchItems("DESCR", 0, 10);
         assertEquals(List.of(itemToCreate), itemActual);
     }
 
     @Test
     void searchItemsBlank() {
-          List<ItemDto> itemActual = itemService.searchItems("");
+          List<ItemDto> itemActual = itemService.searchItems("", 0, 10);
           assertTrue(itemActual.isEmpty());
 
     }
 
     @Test
     void createComment() {
-        long bookingId = 1;
-        BookingMapper bookingMapper = Mappers.getMapper(BookingMapper.class);
         Comment comment = Comment.builder()
                 .created(LocalDateTime.of(2021, 12, 1, 12, 11, 10))
                 .itemId(1).text("Comment").author(UserMapper.INSTANCE.toUser(userDto)).build();
-        BookingDto bookingDto = BookingDto.builder().id(bookingId).start(LocalDateTime.now().minusDays(2))
-                .end(LocalDateTime.now().minusDays(1))
-                .booker(userDto).item(itemDto).status(Status.APPROVED).build();
 
         when(userRepository.getById(userDto.getId())).thenReturn(UserMapper.INSTANCE.toUser(userDto));
         when(commentRepository.save(any(Comment.class))).thenReturn(comment);
-        when(bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(any(Long.class), any(LocalDateTime.class)))
-                .thenReturn(List.of(bookingMapper.toBooking(bookingDto)));
+        when(bookingRepository.existsByBookerIdAndEndBefore(any(Long.class), any(LocalDateTime.class)))
+                .thenReturn(true);
         CommentDto commentToCreate = itemService.createComment(userDto.getId(), comment.getItemId(),
                 commentMapper.toCommentDto(comment));
         assertEquals(commentToCreate, commentMapper.toCommentDto(comment));
@@ -195,8 +243,8 @@ class ItemServiceTest {
         Comment comment = Comment.builder()
                 .created(LocalDateTime.of(2021, 12, 1, 12, 11, 10))
                 .itemId(1).text("Text").author(UserMapper.INSTANCE.toUser(userDto)).build();
-        when(bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(any(Long.class), any(LocalDateTime.class)))
-                .thenReturn(new ArrayList<>());
+        when(bookingRepository.existsByBookerIdAndEndBefore(any(Long.class), any(LocalDateTime.class)))
+                .thenReturn(false);
         assertThatThrownBy(() -> itemService.createComment(userDto.getId(), comment.getItemId(),
                 commentMapper.toCommentDto(comment))).isInstanceOf(ValidationException.class).hasMessage("User doesn't have any bookings to write comments");
     }
@@ -0,0 +1,181 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.enums.ItemFormat;
+import ru.practicum.shareit.item.component.ItemSearchIndex;
+import ru.practicum.shareit.item.component.ItemTransfer;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportError;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemMapper;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemTransferTest {
+    private final ItemTransfer itemTransfer;
+    private final ItemMapper itemMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ItemSearchIndex itemSearchIndex;
+    private final DataSource dataSource;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private long userId;
+
+    @BeforeEach
+    void initTest() {
+        userId = userService.createUser(UserDto.builder().name("importer").email("importer@mail.com").build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll(itemRepository.findAllByOwnerIsOrderById(userId));
+        userRepository.deleteById(userId);
+    }
+
+    @Test
+    void testImportNdjson() {
+        String payload = "{\"name\": \"Байдарка\", \"description\": \"Двухместная байдарка\", \"available\": true}\n" +
+                "\n" +
+                "{\"name\": \"\", \"description\": \"Без имени\", \"available\": true}\n" +
+                "{\"name\": \"Весло\"\n" +
+                "{\"name\": \"Весло\", \"description\": \"Весло для байдарки\", \"available\": false, \"owner\": 99}\n";
+
+        ItemImportResult result = itemTransfer.importItems(userId, ItemFormat.NDJSON, new StringReader(payload));
+
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(List.of(3L, 4L), result.getErrors().stream().map(ItemImportError::getLine)
+                .collect(Collectors.toList()));
+        assertEquals("Name is blank", result.getErrors().get(0).getError());
+        List<Item> items = itemRepository.findAllByOwnerIsOrderById(userId);
+        assertEquals(List.of("Байдарка", "Весло"), items.stream().map(Item::getName).collect(Collectors.toList()));
+        assertEquals(List.of(items.get(0).getId()), itemSearchIndex.search("байдарка", 0, 10).stream()
+                .map(Item::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testImportCsv() {
+        String payload = "available,name,description,requestId\n" +
+                "true,Палатка,\"Палатка, четырехместная\",\n" +
+                "true,Тент,\"Тент \"\"Люкс\"\"\",\n" +
+                "maybe,Котелок,Котелок,\n" +
+                "false,Спальник,Спальник\n";
+
+        ItemImportResult result = itemTransfer.importItems(userId, ItemFormat.CSV, new StringReader(payload));
+
+        assertEquals(2, result.getImported());
+        assertEquals(List.of(new ItemImportError(4, "Available must be true or false"),
+                new ItemImportError(5, "Expected 4 fields but found 3")), result.getErrors());
+        assertEquals(List.of("Палатка, четырехместная", "Тент \"Люкс\""), itemRepository
+                .findAllByOwnerIsOrderById(userId).stream().map(Item::getDescription).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testImportInBatches() {
+        StringBuilder payload = new StringBuilder();
+        int count = ItemTransfer.BATCH_SIZE * 2 + 1;
+        for (int i = 0; i < count; i++) {
+            payload.append("{\"name\": \"Item ").append(i).append("\", \"description\": \"Item\", \"available\": true}\n");
+        }
+
+        ItemImportResult result = itemTransfer.importItems(userId, ItemFormat.NDJSON,
+                new StringReader(payload.toString()));
+
+        assertEquals(count, result.getImported());
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(count, itemRepository.findAllByOwnerIsOrderById(userId).size());
+    }
+
+    @Test
+    void testImportReportsFailedBatchAndGoesOn() {
+        ItemSearchIndex failingIndex = Mockito.mock(ItemSearchIndex.class);
+        doThrow(new IllegalStateException("Index is broken")).when(failingIndex)
+                .index(argThat(item -> "Broken".equals(item.getName())));
+        ItemTransfer transfer = new ItemTransfer(itemRepository, itemMapper, failingIndex, objectMapper,
+                transactionTemplate, entityManager);
+        StringBuilder payload = new StringBuilder();
+        for (int i = 0; i < ItemTransfer.BATCH_SIZE + 2; i++) {
+            String name = i == 1 ? "Broken" : "Item " + i;
+            payload.append("{\"name\": \"").append(name).append("\", \"description\": \"Item\", \"available\": true}\n");
+        }
+
+        ItemImportResult result = transfer.importItems(userId, ItemFormat.NDJSON, new StringReader(payload.toString()));
+
+        assertEquals(2, result.getImported());
+        assertEquals(ItemTransfer.BATCH_SIZE, result.getFailed());
+        assertEquals(LongStream.rangeClosed(1, ItemTransfer.BATCH_SIZE).boxed().collect(Collectors.toList()),
+                result.getErrors().stream().map(ItemImportError::getLine).collect(Collectors.toList()));
+        assertEquals("Item was not saved: Index is broken", result.getErrors().get(0).getError());
+        assertEquals(List.of("Item " + ItemTransfer.BATCH_SIZE, "Item " + (ItemTransfer.BATCH_SIZE + 1)),
+                itemRepository.findAllByOwnerIsOrderById(userId).stream().map(Item::getName)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void testExport() {
+        itemTransfer.importItems(userId, ItemFormat.CSV, new StringReader("name,description,available\n" +
+                "Палатка,Палатка,true\nТент,Тент,false\n"));
+        List<ItemDto> exported = new ArrayList<>();
+
+        itemTransfer.exportItems(userId, exported::add);
+
+        assertEquals(List.of("Палатка", "Тент"), exported.stream().map(ItemDto::getName)
+                .collect(Collectors.toList()));
+        assertEquals(List.of(userId, userId), exported.stream().map(ItemDto::getOwner)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    @SneakyThrows
+    void testExportReadsPagesWithoutHoldingAConnection() {
+        int count = 2 * ItemTransfer.BATCH_SIZE + 1;
+        String payload = IntStream.range(0, count)
+                .mapToObj(i -> "{\"name\": \"item" + i + "\", \"description\": \"item\", \"available\": true}")
+                .collect(Collectors.joining("\n"));
+        itemTransfer.importItems(userId, ItemFormat.NDJSON, new StringReader(payload));
+        HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        List<Long> ids = new ArrayList<>();
+        List<Integer> activeConnections = new ArrayList<>();
+
+        itemTransfer.exportItems(userId, item -> {
+            ids.add(item.getId());
+            activeConnections.add(pool.getActiveConnections());
+        });
+
+        assertEquals(count, ids.size());
+        assertEquals(ids.stream().sorted().collect(Collectors.toList()), ids);
+        assertTrue(activeConnections.stream().allMatch(active -> active == 0));
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.config.PersistenceConfig;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Makes a {@code @DataJpaTest} slice run its statements through the counting data source instead of replacing
+ * it with an embedded database. The slice has no meter registry of its own, so a simple one is added.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@TestPropertySource(properties = "spring.test.database.replace=none")
+@Import({PersistenceConfig.class, QueryMetricsListener.class, QueryMetricsProperties.class, SimpleMeterRegistry.class})
+public @interface CountQueries {
+}
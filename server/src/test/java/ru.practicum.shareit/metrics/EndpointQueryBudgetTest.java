@@ -0,0 +1,168 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.variables.Variables.HEADER;
+
+/**
+ * Every read endpoint runs a fixed number of statements however many rows it returns. There are more rows than
+ * the similar statements threshold, so a statement run once per row would also fail the request itself.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class EndpointQueryBudgetTest {
+    private static final int ROWS = 15;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+    private User owner;
+    private User requestor;
+    private List<User> bookers;
+    private List<Item> items;
+    private List<Booking> bookings;
+
+    @BeforeEach
+    void initTest() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@budget.com").build());
+        requestor = userRepository.save(User.builder().name("requestor").email("requestor@budget.com").build());
+        bookers = new ArrayList<>();
+        items = new ArrayList<>();
+        bookings = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ROWS; i++) {
+            User booker = userRepository.save(User.builder().name("booker" + i).email("booker" + i + "@budget.com")
+                    .build());
+            ItemRequest request = requestRepository.save(ItemRequest.builder().description("request" + i)
+                    .requestor(requestor.getId()).created(now.minusDays(i)).build());
+            Item item = itemRepository.save(Item.builder().name("item" + i).description("description" + i)
+                    .available(true).owner(owner.getId()).requestId(request.getId()).build());
+            bookings.add(bookingRepository.save(Booking.builder().item(item).booker(booker).status(Status.APPROVED)
+                    .start(now.minusDays(i + 2)).end(now.minusDays(i + 1)).build()));
+            bookings.add(bookingRepository.save(Booking.builder().item(item).booker(booker).status(Status.WAITING)
+                    .start(now.plusDays(i + 1)).end(now.plusDays(i + 2)).build()));
+            commentRepository.save(Comment.builder().text("comment" + i).itemId(items.isEmpty() ? item.getId()
+                    : items.get(0).getId()).author(booker).created(now).build());
+            bookers.add(booker);
+            items.add(item);
+        }
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @QueryBudget(2)
+    @SneakyThrows
+    void testGetItemsByUser() {
+        mockMvc.perform(get("/items").header(HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ROWS)))
+                .andExpect(jsonPath("$[0].comments", hasSize(ROWS)));
+    }
+
+    @Test
+    @QueryBudget(2)
+    @SneakyThrows
+    void testGetItemById() {
+        mockMvc.perform(get("/items/{itemId}", items.get(0).getId()).header(HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments", hasSize(ROWS)));
+    }
+
+    @Test
+    @QueryBudget(3)
+    @SneakyThrows
+    void testGetOwnRequests() {
+        mockMvc.perform(get("/requests").header(HEADER, requestor.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ROWS)))
+                .andExpect(jsonPath("$[0].items", hasSize(1)));
+    }
+
+    @Test
+    @QueryBudget(2)
+    @SneakyThrows
+    void testGetAllRequests() {
+        mockMvc.perform(get("/requests/all").header(HEADER, owner.getId()).param("from", "0")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ROWS)))
+                .andExpect(jsonPath("$[0].items", hasSize(1)));
+    }
+
+    @Test
+    @QueryBudget(1)
+    @SneakyThrows
+    void testGetBookingsByOwner() {
+        mockMvc.perform(get("/bookings/owner").header(HEADER, owner.getId()).param("state", "ALL")
+                        .param("from", "0").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2 * ROWS)));
+    }
+
+    @Test
+    @QueryBudget(1)
+    @SneakyThrows
+    void testGetBookingsByUser() {
+        mockMvc.perform(get("/bookings").header(HEADER, bookers.get(0).getId()).param("state", "ALL")
+                        .param("from", "0").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    @QueryBudget(1)
+    @SneakyThrows
+    void testGetBookingById() {
+        mockMvc.perform(get("/bookings/{bookingId}", bookings.get(0).getId()).header(HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.booker.id").value(bookers.get(0).getId()));
+    }
+}
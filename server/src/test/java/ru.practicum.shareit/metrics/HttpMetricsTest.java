@@ -0,0 +1,53 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.variables.Variables.HEADER;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class HttpMetricsTest {
+    @MockBean
+    private BookingService bookingService;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    @SneakyThrows
+    void testRequestsAreTimedByRouteStatusAndState() {
+        long owner = count("uri", "/bookings/owner", "status", "200", "state", "PAST");
+        long unknown = count("uri", "/bookings", "status", "200", "state", "unknown");
+        long notFound = count("uri", "/users/{userId}", "status", "404", "state", "none");
+
+        mockMvc.perform(get("/bookings/owner").header(HEADER, 1).param("state", "PAST")
+                .param("from", "0").param("size", "10")).andExpect(status().isOk());
+        mockMvc.perform(get("/bookings").header(HEADER, 1).param("state", "SOMETHING")
+                .param("from", "0").param("size", "10")).andExpect(status().isOk());
+        mockMvc.perform(get("/users/{id}", 100_000)).andExpect(status().isNotFound());
+
+        assertEquals(owner + 1, count("uri", "/bookings/owner", "status", "200", "state", "PAST"));
+        assertEquals(unknown + 1, count("uri", "/bookings", "status", "200", "state", "unknown"));
+        assertEquals(notFound + 1, count("uri", "/users/{userId}", "status", "404", "state", "none"));
+        assertEquals(3, registry.get("http.server.requests").tags("uri", "/bookings/owner").timer()
+                .takeSnapshot().percentileValues().length);
+    }
+
+    private long count(String... tags) {
+        Timer timer = registry.find("http.server.requests").tags(tags).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
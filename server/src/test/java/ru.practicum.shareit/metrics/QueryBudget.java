@@ -0,0 +1,20 @@
+package ru.practicum.shareit.metrics;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The exact number of statements the annotated test may run. Only the test method itself is measured, so the
+ * data it reads should be prepared in a {@code @BeforeEach} method. A {@code @DataJpaTest} needs
+ * {@link CountQueries} to route its statements through the counting data source.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+    int value();
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.metrics;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Opens a tracked {@link QueryScope} around a test annotated with {@link QueryBudget} and fails the test when
+ * it runs another number of statements, listing every statement with its number of runs.
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), QueryScope.openTracked());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryScope scope = context.getStore(NAMESPACE).remove(context.getUniqueId(), QueryScope.class);
+        scope.close();
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        int budget = AnnotationSupport.findAnnotation(context.getElement(), QueryBudget.class)
+                .map(QueryBudget::value)
+                .orElseThrow();
+        if (scope.getStatements() != budget) {
+            fail(String.format("Expected %d statements but %d were run:%n%s", budget, scope.getStatements(),
+                    scope.getSimilarStatements().entrySet().stream()
+                            .map(entry -> entry.getValue() + " x " + entry.getKey())
+                            .collect(Collectors.joining(System.lineSeparator()))));
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.DetectionMode;
+import ru.practicum.shareit.enums.Status;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.component.ItemTransfer;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.variables.Variables.HEADER;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+class QueryMetricsTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry registry;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private QueryMetricsProperties properties;
+
+    @AfterEach
+    void tearDown() {
+        properties.setSlowQueryThreshold(Duration.ofMillis(200));
+        properties.setSimilarStatementsMode(DetectionMode.FAIL);
+        properties.setSimilarStatementsThreshold(10);
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testRepositoryCallsAreMeasured() {
+        for (int i = 0; i < 3; i++) {
+            userRepository.save(User.builder().name("user" + i).email("user" + i + "@metrics.com").build());
+        }
+        long calls = timer("repository.invocations", "UserRepository", "findAll").count();
+        double rows = summary("repository.rows", "UserRepository", "findAll").totalAmount();
+        double statements = summary("repository.statements", "UserRepository", "findAll").totalAmount();
+
+        userRepository.findAll();
+
+        assertEquals(calls + 1, timer("repository.invocations", "UserRepository", "findAll").count());
+        assertEquals(rows + 3, summary("repository.rows", "UserRepository", "findAll").totalAmount());
+        assertEquals(statements + 1, summary("repository.statements", "UserRepository", "findAll").totalAmount());
+        assertTrue(registry.get("jdbc.statements").tags("type", "select", "batch", "false").timer().count() > 0);
+    }
+
+    @Test
+    @SneakyThrows
+    void testRequestStatementsAreCounted() {
+        userRepository.save(User.builder().name("user").email("user@metrics.com").build());
+        double statements = requestSummary("request.statements").totalAmount();
+        double rows = requestSummary("request.rows").totalAmount();
+
+        mockMvc.perform(get("/users")).andExpect(status().isOk());
+
+        assertEquals(statements + 1, requestSummary("request.statements").totalAmount());
+        assertEquals(rows + 1, requestSummary("request.rows").totalAmount());
+    }
+
+    @Test
+    void testSlowQueryIsLoggedWithParameters(CapturedOutput output) {
+        properties.setSlowQueryThreshold(Duration.ZERO);
+
+        userRepository.findById(987654321L);
+
+        assertTrue(output.getOut().contains("Slow query"));
+        assertTrue(output.getOut().contains("987654321"));
+    }
+
+    @Test
+    @SneakyThrows
+    void testSimilarStatementsAreLogged(CapturedOutput output) {
+        userRepository.save(User.builder().name("user").email("user@metrics.com").build());
+        properties.setSimilarStatementsMode(DetectionMode.WARN);
+        properties.setSimilarStatementsThreshold(0);
+
+        mockMvc.perform(get("/users")).andExpect(status().isOk());
+
+        assertTrue(output.getOut().contains("GET /users ran a statement 1 times"));
+    }
+
+    @Test
+    @SneakyThrows
+    void testSimilarStatementsAreNotCountedWhenOff(CapturedOutput output) {
+        userRepository.save(User.builder().name("user").email("user@metrics.com").build());
+        properties.setSimilarStatementsMode(DetectionMode.OFF);
+        properties.setSimilarStatementsThreshold(0);
+
+        mockMvc.perform(get("/users")).andExpect(status().isOk());
+
+        assertFalse(output.getOut().contains("ran a statement"));
+    }
+
+    @Test
+    @SneakyThrows
+    void testSimilarStatementsFailTheRequest() {
+        userRepository.save(User.builder().name("user").email("user@metrics.com").build());
+        properties.setSimilarStatementsThreshold(0);
+
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$['Internal Server Error']", containsString("ran 1 times")));
+    }
+
+    @Test
+    @SneakyThrows
+    void testImportChunksRunNoSimilarStatements() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@metrics.com").build());
+        properties.setSimilarStatementsThreshold(2);
+        int items = 3 * ItemTransfer.BATCH_SIZE;
+        String payload = IntStream.range(0, items)
+                .mapToObj(i -> "{\"name\": \"item" + i + "\", \"description\": \"item\", \"available\": true}")
+                .collect(Collectors.joining("\n"));
+
+        mockMvc.perform(post("/items/import").header(HEADER, owner.getId())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(payload.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(items));
+    }
+
+    @Test
+    @SneakyThrows
+    void testBulkDecisionsRaiseTheThreshold() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@metrics.com").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@metrics.com").build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDecisionDto> decisions = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Item item = itemRepository.save(Item.builder().name("item" + i).description("item").available(true)
+                    .owner(owner.getId()).build());
+            Booking booking = bookingRepository.save(Booking.builder().item(item).booker(booker)
+                    .status(Status.REJECTED).start(start).end(start.plusDays(1)).build());
+            decisions.add(BookingDecisionDto.builder().bookingId(booking.getId()).approved(true).build());
+        }
+
+        mockMvc.perform(patch("/bookings").header(HEADER, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(decisions)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[11].booking.status").value("APPROVED"));
+    }
+
+    @Test
+    void testExpectedStatementsRaiseTheTrackedScopes() {
+        try (QueryScope request = QueryScope.openTracked(); QueryScope repository = QueryScope.open()) {
+            QueryScope.expectSimilarStatements(5);
+
+            assertEquals(15, request.getAllowedSimilarStatements(10));
+            assertEquals(10, repository.getAllowedSimilarStatements(10));
+            assertEquals(15, QueryScope.allowedSimilarStatements(10));
+        }
+        assertEquals(10, QueryScope.allowedSimilarStatements(10));
+    }
+
+    private Timer timer(String name, String repository, String method) {
+        return Timer.builder(name).tags("repository", repository, "method", method, "exception", "none")
+                .register(registry);
+    }
+
+    private DistributionSummary summary(String name, String repository, String method) {
+        return DistributionSummary.builder(name).tags("repository", repository, "method", method)
+                .register(registry);
+    }
+
+    private DistributionSummary requestSummary(String name) {
+        return DistributionSummary.builder(name).tags("method", "GET", "uri", "/users").register(registry);
+    }
+}
@@ -2,10 +2,15 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.BeforeEach;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -15,6 +20,8 @@ import ru.practicum.shareit.user.service.UserService;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -27,15 +34,16 @@ public class RequestServiceIntegrationTest {
     private final EntityManager em;
     private final UserService userService;
     private final ItemRequestService service;
+    private final ItemRequestRepository requestRepository;
+    private final ItemRepository itemRepository;
     private ItemRequestDto request;
     private UserDto userToCreate;
 
     @BeforeEach
     void initTest() {
-        long requestId = 1;
         UserDto user = UserDto.builder().name("name").email("name@mail.com").build();
         userToCreate = userService.createUser(user);
-        request = ItemRequestDto.builder().id(requestId).created(LocalDateTime.now()).requestor(userToCreate.getId())
+        request = ItemRequestDto.builder().created(LocalDateTime.now()).requestor(userToCreate.getId())
                 .description("Request 1").items(null).build();
     }
 
@@ -51,4 +59,65 @@ public class RequestServiceIntegrationTest {
         assertThat(requestToCheck.getDescription(), equalTo(requestToCreate.getDescription()));
         assertThat(requestToCheck.getCreated(), equalTo(requestToCreate.getCreated()));
     }
+
+    @Test
+    void testGetOwnRequestsQueryCount() {
+        createRequests(userToCreate.getId(), 1);
+        long statementsForOne = countStatements(() -> service.getOwnRequests(userToCreate.getId()));
+
+        createRequests(userToCreate.getId(), 9);
+        long statementsForTen = countStatements(() -> assertThat(service.getOwnRequests(userToCreate.getId()).size(),
+                equalTo(10)));
+
+        assertThat(statementsForTen, equalTo(statementsForOne));
+    }
+
+    @Test
+    void testGetAllRequestsQueryCount() {
+        UserDto otherUser = userService.createUser(UserDto.builder().name("other").email("other@mail.com").build());
+        createRequests(userToCreate.getId(), 100);
+
+        long statementsForOne = countStatements(() -> service.getAllRequests(otherUser.getId(), PageRequest.of(0, 1)));
+        long statementsForHundred = countStatements(() -> {
+            List<ItemRequestDto> requests = service.getAllRequests(otherUser.getId(), PageRequest.of(0, 100));
+            assertThat(requests.size(), equalTo(100));
+            assertThat(requests.get(0).getItems().size(), equalTo(2));
+        });
+
+        assertThat(statementsForHundred, equalTo(statementsForOne));
+    }
+
+    @Test
+    void testGetRequestByIdQueryCount() {
+        long requestId = createRequests(userToCreate.getId(), 1).get(0);
+
+        long statements = countStatements(() -> assertThat(service.getRequestById(requestId, userToCreate.getId())
+                .getItems().size(), equalTo(2)));
+
+        assertThat(statements, equalTo(3L));
+    }
+
+    private List<Long> createRequests(long requestorId, int count) {
+        List<Long> requestIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ItemRequest itemRequest = requestRepository.save(ItemRequest.builder().description("Request " + i)
+                    .requestor(requestorId).created(LocalDateTime.now()).build());
+            for (int j = 0; j < 2; j++) {
+                itemRepository.save(Item.builder().name("Item " + j).description("Item for request " + i)
+                        .available(true).owner(requestorId).requestId(itemRequest.getId()).build());
+            }
+            requestIds.add(itemRequest.getId());
+        }
+        em.flush();
+        em.clear();
+        return requestIds;
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        em.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
 }
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.tracing;
+
+import brave.handler.MutableSpan;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.tracing.exporter=memory")
+@AutoConfigureMockMvc
+class TracingTest {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_ID = "00f067aa0ba902b7";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private InMemorySpanCollector collector;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    private long userId;
+
+    @BeforeEach
+    void initTest() {
+        userId = userRepository.save(User.builder().name("traced").email("traced@mail.com").build()).getId();
+        entityManagerFactory.getCache().evictAll();
+        collector.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @SneakyThrows
+    void testRequestIsTracedDownToStatements() {
+        mockMvc.perform(get("/users/{userId}", userId)
+                        .header("traceparent", "00-" + TRACE_ID + "-" + PARENT_ID + "-01"))
+                .andExpect(status().isOk());
+
+        Map<String, MutableSpan> spans = collector.getTrace(TRACE_ID).stream()
+                .collect(Collectors.toMap(MutableSpan::name, Function.identity(), (first, second) -> first));
+        MutableSpan http = spans.get("GET /users/{userId}");
+        MutableSpan service = spans.get("UserServiceImpl.getUser");
+        MutableSpan repository = spans.get("UserRepository.findById");
+        MutableSpan query = spans.get("select");
+        assertNotNull(http, () -> "No HTTP span among " + spans.keySet());
+        assertNotNull(service, () -> "No service span among " + spans.keySet());
+        assertNotNull(repository, () -> "No repository span among " + spans.keySet());
+        assertNotNull(query, () -> "No JDBC span among " + spans.keySet());
+        assertEquals(PARENT_ID, http.parentId());
+        assertEquals(http.id(), service.parentId());
+        assertEquals(service.id(), repository.parentId());
+        assertEquals(repository.id(), query.parentId());
+        assertEquals("service", service.tag("layer"));
+        assertTrue(query.tag("jdbc.query").contains("from users"));
+        assertEquals("shareit-server", http.localServiceName());
+    }
+
+    @Test
+    @SneakyThrows
+    void testTraceIsStartedWithoutIncomingContext() {
+        mockMvc.perform(get("/users")).andExpect(status().isOk());
+
+        List<MutableSpan> spans = collector.getSpans();
+        assertTrue(spans.size() >= 3);
+        assertEquals(1, spans.stream().map(MutableSpan::traceId).distinct().count());
+    }
+}